@@ -26,6 +26,7 @@ import net.minecraftforge.fml.common.event.FMLInitializationEvent;
 import net.minecraftforge.fml.common.event.FMLInterModComms;
 import net.minecraftforge.fml.common.event.FMLPostInitializationEvent;
 import net.minecraftforge.fml.common.event.FMLPreInitializationEvent;
+import net.minecraftforge.fml.common.event.FMLServerStartingEvent;
 import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
 import net.minecraftforge.fml.common.network.NetworkRegistry;
 import net.minecraftforge.fml.common.network.simpleimpl.SimpleNetworkWrapper;
@@ -42,14 +43,22 @@ import team.chisel.common.block.MessageAutochiselFX;
 import team.chisel.common.block.MessageUpdateAutochiselSource;
 import team.chisel.common.carving.Carving;
 import team.chisel.common.carving.ChiselModeRegistry;
+import team.chisel.common.command.CommandChiselStats;
 import team.chisel.common.config.Configurations;
 import team.chisel.common.init.ChiselBlocks;
 import team.chisel.common.init.ChiselFuelHandler;
 import team.chisel.common.init.ChiselSounds;
 import team.chisel.common.integration.imc.IMCHandler;
 import team.chisel.common.item.ChiselController;
+import team.chisel.common.item.ChiselHistory;
 import team.chisel.common.item.ChiselMode;
+import team.chisel.common.item.ChiselPrediction;
+import team.chisel.common.item.ChiselRateLimiter;
+import team.chisel.common.item.PacketChiselConfig;
+import team.chisel.common.item.PacketChiselHistory;
 import team.chisel.common.item.PacketChiselMode;
+import team.chisel.common.item.PacketChiselPrediction;
+import team.chisel.common.item.PacketChiselReconcile;
 import team.chisel.common.util.GenerationHandler;
 import team.chisel.common.util.PerChunkData;
 import team.chisel.common.util.PerChunkData.MessageChunkData;
@@ -77,6 +86,10 @@ public class Chisel implements Reference {
         network.registerMessage(PacketChiselMode.Handler.class, PacketChiselMode.class, 3, Side.SERVER);
         network.registerMessage(MessageUpdateAutochiselSource.Handler.class, MessageUpdateAutochiselSource.class, 4, Side.CLIENT);
         network.registerMessage(MessageAutochiselFX.Handler.class, MessageAutochiselFX.class, 5, Side.CLIENT);
+        network.registerMessage(PacketChiselHistory.Handler.class, PacketChiselHistory.class, 6, Side.SERVER);
+        network.registerMessage(PacketChiselPrediction.Handler.class, PacketChiselPrediction.class, 7, Side.SERVER);
+        network.registerMessage(PacketChiselReconcile.Handler.class, PacketChiselReconcile.class, 8, Side.CLIENT);
+        network.registerMessage(PacketChiselConfig.Handler.class, PacketChiselConfig.class, 9, Side.CLIENT);
     }
     
     private static Map<String, Block> remaps = ImmutableMap.of();
@@ -103,6 +116,10 @@ public class Chisel implements Reference {
 
         MinecraftForge.EVENT_BUS.register(PerChunkData.INSTANCE);
         MinecraftForge.EVENT_BUS.register(ChiselController.class);
+        MinecraftForge.EVENT_BUS.register(ChiselHistory.class);
+        MinecraftForge.EVENT_BUS.register(ChiselRateLimiter.class);
+        MinecraftForge.EVENT_BUS.register(ChiselPrediction.class);
+        MinecraftForge.EVENT_BUS.register(PacketChiselConfig.class);
 
         GameRegistry.registerWorldGenerator(GenerationHandler.INSTANCE, 2);
         MinecraftForge.EVENT_BUS.register(GenerationHandler.INSTANCE);
@@ -190,6 +207,11 @@ public class Chisel implements Reference {
         proxy.postInit();
     }
 
+    @Mod.EventHandler
+    public void serverStarting(FMLServerStartingEvent event) {
+        event.registerServerCommand(new CommandChiselStats());
+    }
+
     /**
      * Sends a debug message, basically a wrapper for the logger that only prints when debugging is enabled
      *
@@ -153,4 +153,33 @@ public interface IChiselItem {
         res.setCount(toCraft);
         return res;
     }
+
+    /**
+     * Pays for many conversions at once, such as when chiseling an area of blocks, rather than calling {@link #craftItem(ItemStack, ItemStack, ItemStack, EntityPlayer)} once per item. The default
+     * implementation does exactly that, so only chisels which can charge for a batch in one step need to override this.
+     * 
+     * @param chisel
+     *            The {@link ItemStack} being used as a chisel. Damage for all conversions that can be afforded must be applied to this stack.
+     * @param source
+     *            What is being chiseled. Only its type matters; it is not modified.
+     * @param target
+     *            What it is being chiseled into. Only its type matters; it is not modified.
+     * @param count
+     *            The number of conversions wanted.
+     * @param player
+     *            The player doing the chiseling.
+     * @return How many conversions the chisel could afford, between 0 and {@code count}.
+     */
+    default int craftItems(ItemStack chisel, ItemStack source, ItemStack target, int count, EntityPlayer player) {
+        int crafted = 0;
+        while (crafted < count && !chisel.isEmpty()) {
+            ItemStack single = source.copy();
+            single.setCount(1);
+            if (craftItem(chisel, single, target, player).isEmpty()) {
+                break;
+            }
+            crafted++;
+        }
+        return crafted;
+    }
 }
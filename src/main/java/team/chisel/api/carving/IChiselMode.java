@@ -6,10 +6,12 @@ import javax.annotation.ParametersAreNonnullByDefault;
 import javax.vecmath.Point2i;
 
 import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.item.ItemStack;
 import net.minecraft.util.EnumFacing;
 import net.minecraft.util.ResourceLocation;
 import net.minecraft.util.math.AxisAlignedBB;
 import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.IBlockAccess;
 import team.chisel.Chisel;
 import team.chisel.common.util.NonnullType;
 
@@ -29,7 +31,58 @@ public interface IChiselMode {
      */
     Iterable<@NonnullType ? extends BlockPos> getCandidates(EntityPlayer player, BlockPos pos, EnumFacing side);
 
+    /**
+     * As {@link #getCandidates(EntityPlayer, BlockPos, EnumFacing)}, but reading blocks from the given world, and the player's facing and held chisel from the given values, rather than from the
+     * player. This is used to compute previews in the background, against a snapshot of the world taken along with those values, so it must not touch the player or their world at all.
+     * <p>
+     * The default implementation ignores all of them and reads the live player and world. Previews for modes which don't override this are therefore computed on the render thread, which can stall
+     * it for large selections, so modes should override it.
+     *
+     * @param world
+     *            The world to read blocks from.
+     * @param chisel
+     *            A copy of the player's held chisel.
+     * @param facing
+     *            The horizontal direction the player is facing.
+     */
+    default Iterable<@NonnullType ? extends BlockPos> getCandidates(EntityPlayer player, IBlockAccess world, ItemStack chisel, EnumFacing facing, BlockPos pos, EnumFacing side) {
+        return getCandidates(player, pos, side);
+    }
+
     AxisAlignedBB getBounds(EnumFacing side);
+
+    /**
+     * The bounds of the area {@link #getCandidates(EntityPlayer, BlockPos, EnumFacing)} can return, in world coordinates. Only needs to be overridden by modes whose area depends on more than the
+     * targeted side.
+     * 
+     * @param player
+     *            The player.
+     * @param origin
+     *            The position of the targeted block.
+     * @param side
+     *            The side of the block being targeted.
+     */
+    default AxisAlignedBB getBounds(EntityPlayer player, BlockPos origin, EnumFacing side) {
+        return getBounds(side).offset(origin);
+    }
+
+    /**
+     * Called when a player chisels a block in the world with this mode, after the candidates for the click have been collected. Modes that need more than one click to make a selection can keep
+     * their state on the chisel stack here.
+     * 
+     * @param player
+     *            The player.
+     * @param chisel
+     *            The chisel being used.
+     * @param pos
+     *            The position of the clicked block.
+     * @param side
+     *            The side of the block that was clicked.
+     * @return False to consume the click without chiseling anything.
+     */
+    default boolean onChiselClick(EntityPlayer player, ItemStack chisel, BlockPos pos, EnumFacing side) {
+        return true;
+    }
     
 	/**
 	 * Implemented implicitly by enums. If your IChiselMode is not an enum constant, this needs to be implemented explicitly.
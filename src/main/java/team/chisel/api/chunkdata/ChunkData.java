@@ -31,8 +31,11 @@ public class ChunkData {
         }
     }
 
+    /**
+     * Safe to call from chunk render threads, the world's chunk provider is not accessed.
+     */
     public static IOffsetData getOffsetForChunk(World world, @Nonnull BlockPos pos) {
-        return getOffsetForChunk(world.getChunkFromBlockCoords(pos));
+        return getOffsetForChunk(world.provider.getDimension(), pos.getX() >> 4, pos.getZ() >> 4);
     }
 
     public static IOffsetData getOffsetForChunk(Chunk chunk) {
@@ -40,7 +43,12 @@ public class ChunkData {
     }
 
     public static IOffsetData getOffsetForChunk(int dimID, ChunkPos chunk) {
+        return getOffsetForChunk(dimID, chunk.x, chunk.z);
+    }
+
+    public static IOffsetData getOffsetForChunk(int dimID, int chunkX, int chunkZ) {
         IChunkData<? extends IOffsetData> data = offsetRegistry.<IChunkData<? extends IOffsetData>> getData(OFFSET_DATA_KEY);
-        return data == null ? DUMMY : data.getDataForChunk(dimID, chunk);
+        IOffsetData offset = data == null ? null : data.peekDataForChunk(dimID, chunkX, chunkZ);
+        return offset == null ? DUMMY : offset;
     }
 }
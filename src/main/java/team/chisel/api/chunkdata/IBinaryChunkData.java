@@ -0,0 +1,47 @@
+package team.chisel.api.chunkdata;
+
+import java.util.Collection;
+
+import javax.annotation.Nonnull;
+
+import io.netty.buffer.ByteBuf;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.chunk.Chunk;
+
+/**
+ * Chunk data which can be synced to clients in a compact binary form. Data which does not implement this is synced as NBT.
+ */
+public interface IBinaryChunkData<T> extends IChunkData<T> {
+
+    /**
+     * Binary equivalent of {@link #writeToNBT()}.
+     */
+    void writeBinary(@Nonnull ByteBuf buf);
+
+    /**
+     * Writes the given chunks in the same format as {@link #writeBinary(ByteBuf)}, so that they can be read with {@link #readBinary(ByteBuf)}. Used to sync many chunks in one message.
+     * 
+     * @param dimID
+     *            The dimension the chunks are in.
+     * @param chunks
+     *            The chunks to write. Chunks without data are skipped.
+     */
+    void writeBinary(int dimID, @Nonnull Collection<ChunkPos> chunks, @Nonnull ByteBuf buf);
+
+    /**
+     * Binary equivalent of {@link #writeToNBT(Chunk, net.minecraft.nbt.NBTTagCompound)}.
+     */
+    void writeBinary(@Nonnull Chunk chunk, @Nonnull ByteBuf buf);
+
+    /**
+     * Binary equivalent of {@link #readFromNBT(net.minecraft.nbt.NBTTagList)}.
+     * 
+     * @return The chunks whose data changed.
+     */
+    Iterable<ChunkPos> readBinary(@Nonnull ByteBuf buf);
+
+    /**
+     * Binary equivalent of {@link #readFromNBT(Chunk, net.minecraft.nbt.NBTTagCompound)}.
+     */
+    void readBinary(@Nonnull Chunk chunk, @Nonnull ByteBuf buf);
+}
@@ -3,6 +3,7 @@ package team.chisel.api.chunkdata;
 import java.util.Collections;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
 import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.nbt.NBTTagList;
@@ -27,5 +28,18 @@ public interface IChunkData<T> {
 
     boolean requiresClientSync();
 
+    /**
+     * Gets the data for the given chunk, creating and storing it if the chunk has none yet.
+     */
     T getDataForChunk(int dimID, @Nonnull ChunkPos chunk);
+
+    /**
+     * Gets the data for the given chunk without creating it. This is called from chunk render threads, so implementations should override it to neither allocate nor insert. The returned data must
+     * not be modified.
+     * 
+     * @return The chunk's data, or null if it has none.
+     */
+    default @Nullable T peekDataForChunk(int dimID, int chunkX, int chunkZ) {
+        return getDataForChunk(dimID, new ChunkPos(chunkX, chunkZ));
+    }
 }
@@ -16,4 +16,15 @@ public interface IOffsetData {
      */
     @Nonnull BlockPos getOffset();
 
+    /**
+     * Gets the offset for the 16x16x16 section containing the given height. Must be cheap, as it is called for every block rendered.
+     * 
+     * @param y
+     *            The block Y coordinate.
+     * @return A BlockPos with coordinates ranging from 0-15
+     */
+    default @Nonnull BlockPos getOffset(int y) {
+        return getOffset();
+    }
+
 }
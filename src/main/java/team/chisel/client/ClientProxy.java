@@ -17,9 +17,14 @@ import net.minecraftforge.fml.relauncher.Side;
 import net.minecraftforge.fml.relauncher.SideOnly;
 import team.chisel.Features;
 import team.chisel.api.chunkdata.ChunkData;
+import team.chisel.client.gui.GuiHitechChisel;
+import team.chisel.client.handler.CarvableSectionTracker;
+import team.chisel.client.handler.ChiselHistoryKeys;
 import team.chisel.client.handler.DebugHandler;
 import team.chisel.client.render.ChiselModelRegistry;
 import team.chisel.client.render.RenderAutoChisel;
+import team.chisel.client.util.ParticleBudget;
+import team.chisel.client.util.VariationIconAtlas;
 import team.chisel.common.CommonProxy;
 import team.chisel.common.block.TileAutoChisel;
 import team.chisel.common.init.ChiselBlocks;
@@ -46,12 +51,18 @@ public class ClientProxy extends CommonProxy {
 
 //        MinecraftForge.EVENT_BUS.register(new DebugHandler());
 
-        OffsetProviderRegistry.INSTANCE.registerProvider((world, pos) -> ChunkData.getOffsetForChunk(world, pos).getOffset());        
+        OffsetProviderRegistry.INSTANCE.registerProvider((world, pos) -> ChunkData.getOffsetForChunk(world, pos).getOffset(pos.getY()));        
     }
 
     @Override
     public void init() {
-
+        MinecraftForge.EVENT_BUS.register(CarvableSectionTracker.INSTANCE);
+        MinecraftForge.EVENT_BUS.register(ChiselHistoryKeys.class);
+        MinecraftForge.EVENT_BUS.register(ParticleBudget.class);
+        ChiselHistoryKeys.register();
+        SimpleReloadableResourceManager resourceManager = (SimpleReloadableResourceManager) Minecraft.getMinecraft().getResourceManager();
+        resourceManager.registerReloadListener(GuiHitechChisel::onResourceReload);
+        resourceManager.registerReloadListener(VariationIconAtlas.INSTANCE);
     }
 
     @Override
@@ -1,6 +1,7 @@
 package team.chisel.client.gui;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 
 import javax.annotation.ParametersAreNonnullByDefault;
@@ -25,9 +26,11 @@ import team.chisel.Chisel;
 import team.chisel.api.IChiselItem;
 import team.chisel.api.carving.CarvingUtils;
 import team.chisel.api.carving.IChiselMode;
+import team.chisel.client.util.VariationIconAtlas;
 import team.chisel.common.inventory.ContainerChisel;
 import team.chisel.common.inventory.InventoryChiselSelection;
 import team.chisel.common.inventory.SlotChiselInput;
+import team.chisel.common.inventory.SlotChiselSelection;
 import team.chisel.common.item.ChiselMode;
 import team.chisel.common.item.PacketChiselMode;
 import team.chisel.common.util.NBTUtil;
@@ -129,7 +132,7 @@ public class GuiChisel extends GuiContainer {
                 String unloc = ((ButtonChiselMode)button).getMode().getUnlocName();
                 List<String> ttLines = Lists.newArrayList(
                         I18n.format(unloc + ".name"),
-                        TextFormatting.GRAY + I18n.format(unloc + ".desc")
+                        TextFormatting.GRAY + I18n.format(unloc + ".desc", ChiselMode.getContiguousRange())
                 );
                 GuiUtils.drawHoveringText(ttLines, mx - guiLeft, my - guiTop, width - guiLeft, height - guiTop, -1, fontRenderer);
             }
@@ -155,6 +158,21 @@ public class GuiChisel extends GuiContainer {
         if (main.getStack() == null) {
             drawSlotOverlay(this, x + 14, y + 14, main, 0, ySize, 60);
         }
+
+        drawSelectionIcons();
+    }
+
+    /**
+     * Draws the items in the selection slots from the icon atlas. Called from the background layer, so slot highlights still draw on top.
+     */
+    protected void drawSelectionIcons() {
+        List<Slot> selection = new ArrayList<>();
+        for (Slot slot : container.inventorySlots) {
+            if (slot instanceof SlotChiselSelection) {
+                selection.add(slot);
+            }
+        }
+        VariationIconAtlas.INSTANCE.draw(selection, guiLeft, guiTop);
     }
 
     @Override
@@ -185,7 +203,7 @@ public class GuiChisel extends GuiContainer {
             slot.xPos += 16;
             slot.yPos += 16;
             GL11.glPopMatrix();
-        } else {
+        } else if (!(slot instanceof SlotChiselSelection && VariationIconAtlas.INSTANCE.contains(slot.getStack()))) {
             super.drawSlot(slot);
         }
     }
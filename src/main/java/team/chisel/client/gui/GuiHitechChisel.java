@@ -25,11 +25,15 @@ import net.minecraft.client.Minecraft;
 import net.minecraft.client.gui.GuiButton;
 import net.minecraft.client.gui.ScaledResolution;
 import net.minecraft.client.renderer.BlockRendererDispatcher;
+import net.minecraft.client.renderer.BufferBuilder;
+import net.minecraft.client.renderer.GLAllocation;
 import net.minecraft.client.renderer.GlStateManager;
 import net.minecraft.client.renderer.Tessellator;
+import net.minecraft.client.renderer.WorldVertexBufferUploader;
 import net.minecraft.client.renderer.texture.TextureMap;
 import net.minecraft.client.renderer.vertex.DefaultVertexFormats;
 import net.minecraft.client.resources.I18n;
+import net.minecraft.client.resources.IResourceManager;
 import net.minecraft.entity.player.InventoryPlayer;
 import net.minecraft.init.Biomes;
 import net.minecraft.init.Blocks;
@@ -201,6 +205,13 @@ public class GuiHitechChisel extends GuiChisel {
     private @Nullable RotateButton buttonRotate;
     
     private @Nullable IBlockState erroredState;
+
+    /* The preview is tessellated once per target and preview type, into a display list */
+    private static int resourceReloads;
+    private int previewList = -1;
+    private @Nullable IBlockState previewState;
+    private @Nullable PreviewType previewType;
+    private int previewReloads;
     
     public GuiHitechChisel(InventoryPlayer iinventory, InventoryChiselSelection menu, EnumHand hand) {
         super(iinventory, menu, hand);
@@ -269,6 +280,11 @@ public class GuiHitechChisel extends GuiChisel {
     public void onGuiClosed() {
         super.onGuiClosed();
 
+        if (previewList >= 0) {
+            GLAllocation.deleteDisplayLists(previewList);
+            previewList = -1;
+        }
+
         ItemStack stack = containerHitech.getChisel();
         if (!(stack.getItem() instanceof IChiselItem)) {
             return;
@@ -306,6 +322,8 @@ public class GuiHitechChisel extends GuiChisel {
             drawSlotHighlight(containerHitech.getTarget(), 36);
         }
 
+        drawSelectionIcons();
+
         if (buttonRotate.rotate() && !panelClicked && System.currentTimeMillis() - lastDragTime > 2000) {
             rotY = initRotY + (f * 2);
         }
@@ -380,23 +398,12 @@ public class GuiHitechChisel extends GuiChisel {
                 if (state != null && state != erroredState) {
                     erroredState = null;
 
-                    fakeworld.setState(state);
-
-                    mc.getTextureManager().bindTexture(TextureMap.LOCATION_BLOCKS_TEXTURE);
-                    Tessellator.getInstance().getBuffer().begin(GL11.GL_QUADS, DefaultVertexFormats.BLOCK);
-                    try {
-                        for (BlockPos pos : buttonPreview.getType().getPositions()) {
-                            brd.renderBlock(state, pos, fakeworld, Tessellator.getInstance().getBuffer());
-                        }
-                    } catch (Exception e) {
-                        erroredState = state;
-                        Chisel.logger.error("Exception rendering block {}", state, e);
-                    } finally {
-                        if (erroredState == null) {
-                            Tessellator.getInstance().draw();
-                        } else {
-                            Tessellator.getInstance().getBuffer().finishDrawing();
-                        }
+                    if (state != previewState || buttonPreview.getType() != previewType || previewReloads != resourceReloads) {
+                        compilePreview(brd, state);
+                    }
+                    if (erroredState == null) {
+                        mc.getTextureManager().bindTexture(TextureMap.LOCATION_BLOCKS_TEXTURE);
+                        GlStateManager.callList(previewList);
                     }
                 }
 
@@ -409,6 +416,42 @@ public class GuiHitechChisel extends GuiChisel {
         }
     }
     
+    /**
+     * Tessellates the preview of the given state into the display list, which is then redrawn every frame until the state, the preview type or the loaded resources change.
+     */
+    private void compilePreview(BlockRendererDispatcher brd, IBlockState state) {
+        previewState = state;
+        previewType = buttonPreview.getType();
+        previewReloads = resourceReloads;
+
+        fakeworld.setState(state);
+
+        BufferBuilder buffer = Tessellator.getInstance().getBuffer();
+        buffer.begin(GL11.GL_QUADS, DefaultVertexFormats.BLOCK);
+        try {
+            for (BlockPos pos : previewType.getPositions()) {
+                brd.renderBlock(state, pos, fakeworld, buffer);
+            }
+        } catch (Exception e) {
+            erroredState = state;
+            Chisel.logger.error("Exception rendering block {}", state, e);
+        } finally {
+            buffer.finishDrawing();
+        }
+        if (erroredState == null) {
+            if (previewList < 0) {
+                previewList = GLAllocation.generateDisplayLists(1);
+            }
+            GlStateManager.glNewList(previewList, GL11.GL_COMPILE);
+            new WorldVertexBufferUploader().draw(buffer);
+            GlStateManager.glEndList();
+        }
+    }
+
+    public static void onResourceReload(IResourceManager manager) {
+        resourceReloads++;
+    }
+
     private void drawSlotHighlight(Slot slot, int u) {
         drawTexturedModalRect(guiLeft + slot.xPos - 1, guiTop + slot.yPos - 1, u, 220, 18, 18);
     }
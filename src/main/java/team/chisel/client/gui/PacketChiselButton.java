@@ -15,8 +15,8 @@ import net.minecraftforge.fml.common.network.simpleimpl.MessageContext;
 import team.chisel.api.IChiselItem;
 import team.chisel.api.carving.CarvingUtils;
 import team.chisel.api.carving.ICarvingRegistry;
+import team.chisel.api.carving.ICarvingVariation;
 import team.chisel.common.inventory.ContainerChiselHitech;
-import team.chisel.common.inventory.SlotChiselSelection;
 import team.chisel.common.util.SoundUtil;
 
 @NoArgsConstructor
@@ -75,6 +75,12 @@ public class PacketChiselButton implements IMessage {
             if (chisel.isEmpty() || target.isEmpty()) {
                 return;
             }
+
+            IChiselItem item = (IChiselItem) chisel.getItem();
+            ICarvingVariation variation = carving.getVariation(target);
+            if (!item.canChisel(player.world, player, chisel, variation)) {
+                return;
+            }
             
             boolean playSound = false;
 
@@ -84,20 +90,30 @@ public class PacketChiselButton implements IMessage {
                     if (carving.getGroup(target) != carving.getGroup(s)) {
                         return;
                     }
-                    container.getInventoryChisel().setStackInSpecialSlot(s);
-                    ItemStack res = SlotChiselSelection.craft(container, player, target.copy(), false);
-                    if (!res.isEmpty()) {
-                        player.inventory.setInventorySlotContents(i, res);
+                    int count = item.craftItems(chisel, s, target, Math.min(s.getCount(), target.getMaxStackSize()), player);
+                    if (count > 0) {
+                        item.onChisel(player.world, player, chisel, variation);
+                        ItemStack res = target.copy();
+                        res.setCount(count);
+                        s.shrink(count);
+                        if (s.isEmpty()) {
+                            player.inventory.setInventorySlotContents(i, res);
+                        } else if (!player.inventory.addItemStackToInventory(res) && !player.world.isRemote) {
+                            // The client predicts this too, and must not spawn an item the server doesn't know about
+                            player.dropItem(res, false);
+                        }
                         playSound = true;
                     }
                 }
                 if (chisel.isEmpty()) {
-                    return;
+                    container.getInventoryPlayer().setInventorySlotContents(container.getChiselSlot(), ItemStack.EMPTY);
+                    break;
                 }
             }
             
             container.getInventoryChisel().setStackInSpecialSlot(container.getSelectionStack());
             container.getInventoryChisel().updateItems();
+            container.detectAndSendChanges();
             
             if (playSound) {
                 SoundUtil.playSound(player, originalChisel, target);
@@ -0,0 +1,197 @@
+package team.chisel.client.handler;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import javax.annotation.Nullable;
+import javax.annotation.ParametersAreNonnullByDefault;
+
+import gnu.trove.map.TLongIntMap;
+import gnu.trove.map.hash.TLongIntHashMap;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.client.Minecraft;
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.util.SoundCategory;
+import net.minecraft.util.SoundEvent;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.IWorldEventListener;
+import net.minecraft.world.World;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.chunk.storage.ExtendedBlockStorage;
+import net.minecraftforge.client.event.ModelBakeEvent;
+import net.minecraftforge.event.world.ChunkEvent;
+import net.minecraftforge.event.world.WorldEvent;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import net.minecraftforge.fml.relauncher.Side;
+import net.minecraftforge.fml.relauncher.SideOnly;
+import team.chisel.api.block.ICarvable;
+import team.chisel.ctm.client.model.AbstractCTMBakedModel;
+
+/**
+ * Tracks, per chunk, which 16x16x16 sections contain CTM-rendered {@link ICarvable} blocks, so that offset changes only rebuild the sections they can affect.
+ * <p>
+ * On the client, chunks fire their load event before their block data arrives, so a chunk's bitmap is computed on first use and then kept up to date from block changes. Bits are only ever set
+ * incrementally; removing the last carvable block in a section leaves its bit set until the chunk is rescanned, which at worst costs one unnecessary rebuild.
+ */
+@SideOnly(Side.CLIENT)
+@ParametersAreNonnullByDefault
+public enum CarvableSectionTracker implements IWorldEventListener {
+
+    INSTANCE;
+
+    private static final int UNKNOWN = -1;
+
+    private final TLongIntMap sections = new TLongIntHashMap(64, 0.5f, Long.MIN_VALUE, UNKNOWN);
+    private final Map<IBlockState, Boolean> relevantStates = new IdentityHashMap<>();
+
+    /**
+     * Marks every section in the given chunk that contains a CTM-rendered {@link ICarvable} for a render update.
+     */
+    public void markForRenderUpdate(World world, int chunkX, int chunkZ) {
+        int mask = getSections(world, chunkX, chunkZ);
+        int x = chunkX << 4;
+        int z = chunkZ << 4;
+        for (int i = 0; mask != 0; i++, mask >>>= 1) {
+            if ((mask & 1) != 0) {
+                int y = i << 4;
+                // RenderGlobal expands the range by one block in each direction, so shrink it to stay inside this section
+                world.markBlockRangeForRenderUpdate(x + 1, y + 1, z + 1, x + 14, y + 14, z + 14);
+            }
+        }
+    }
+
+    private int getSections(World world, int chunkX, int chunkZ) {
+        long key = ChunkPos.asLong(chunkX, chunkZ);
+        int mask = sections.get(key);
+        if (mask == UNKNOWN) {
+            if (!world.getChunkProvider().isChunkGeneratedAt(chunkX, chunkZ)) {
+                return 0;
+            }
+            mask = scan(world.getChunkFromChunkCoords(chunkX, chunkZ));
+            sections.put(key, mask);
+        }
+        return mask;
+    }
+
+    private int scan(Chunk chunk) {
+        int mask = 0;
+        ExtendedBlockStorage[] storage = chunk.getBlockStorageArray();
+        for (int i = 0; i < storage.length; i++) {
+            ExtendedBlockStorage section = storage[i];
+            if (section != Chunk.NULL_BLOCK_STORAGE && !section.isEmpty() && containsRelevant(section)) {
+                mask |= 1 << i;
+            }
+        }
+        return mask;
+    }
+
+    private boolean containsRelevant(ExtendedBlockStorage section) {
+        for (int y = 0; y < 16; y++) {
+            for (int z = 0; z < 16; z++) {
+                for (int x = 0; x < 16; x++) {
+                    if (isRelevant(section.get(x, y, z))) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    private boolean isRelevant(IBlockState state) {
+        if (!(state.getBlock() instanceof ICarvable)) {
+            return false;
+        }
+        return relevantStates.computeIfAbsent(state, s -> Minecraft.getMinecraft().getBlockRendererDispatcher().getModelForState(s) instanceof AbstractCTMBakedModel);
+    }
+
+    @SubscribeEvent
+    public void onWorldLoad(WorldEvent.Load event) {
+        if (event.getWorld().isRemote) {
+            sections.clear();
+            event.getWorld().addEventListener(this);
+        }
+    }
+
+    @SubscribeEvent
+    public void onWorldUnload(WorldEvent.Unload event) {
+        if (event.getWorld().isRemote) {
+            sections.clear();
+        }
+    }
+
+    @SubscribeEvent
+    public void onChunkLoad(ChunkEvent.Load event) {
+        if (event.getWorld().isRemote) {
+            sections.remove(ChunkPos.asLong(event.getChunk().x, event.getChunk().z));
+        }
+    }
+
+    @SubscribeEvent
+    public void onChunkUnload(ChunkEvent.Unload event) {
+        if (event.getWorld().isRemote) {
+            sections.remove(ChunkPos.asLong(event.getChunk().x, event.getChunk().z));
+        }
+    }
+
+    @SubscribeEvent
+    public void onModelBake(ModelBakeEvent event) {
+        relevantStates.clear();
+        sections.clear();
+    }
+
+    @Override
+    public void notifyBlockUpdate(World worldIn, BlockPos pos, IBlockState oldState, IBlockState newState, int flags) {
+        long key = ChunkPos.asLong(pos.getX() >> 4, pos.getZ() >> 4);
+        int mask = sections.get(key);
+        if (mask != UNKNOWN && isRelevant(newState)) {
+            sections.put(key, mask | (1 << (pos.getY() >> 4)));
+        }
+    }
+
+    @Override
+    public void markBlockRangeForRenderUpdate(int x1, int y1, int z1, int x2, int y2, int z2) {
+        // Whole chunks being replaced (e.g. by a chunk data packet) bypass notifyBlockUpdate, so forget them
+        if (x2 - x1 >= 15 && z2 - z1 >= 15) {
+            for (int cx = x1 >> 4; cx <= x2 >> 4; cx++) {
+                for (int cz = z1 >> 4; cz <= z2 >> 4; cz++) {
+                    sections.remove(ChunkPos.asLong(cx, cz));
+                }
+            }
+        }
+    }
+
+    /* == Dummy Impls == */
+
+    @Override
+    public void notifyLightSet(BlockPos pos) {}
+
+    @Override
+    public void playSoundToAllNearExcept(@Nullable EntityPlayer player, SoundEvent soundIn, SoundCategory category, double x, double y, double z, float volume, float pitch) {}
+
+    @Override
+    public void playRecord(SoundEvent soundIn, BlockPos pos) {}
+
+    @Override
+    public void spawnParticle(int particleID, boolean ignoreRange, double xCoord, double yCoord, double zCoord, double xSpeed, double ySpeed, double zSpeed, int... parameters) {}
+
+    @Override
+    public void onEntityAdded(Entity entityIn) {}
+
+    @Override
+    public void onEntityRemoved(Entity entityIn) {}
+
+    @Override
+    public void broadcastSound(int soundID, BlockPos pos, int data) {}
+
+    @Override
+    public void playEvent(EntityPlayer player, int type, BlockPos blockPosIn, int data) {}
+
+    @Override
+    public void sendBlockBreakProgress(int breakerId, BlockPos pos, int progress) {}
+
+    @Override
+    public void spawnParticle(int id, boolean ignoreRange, boolean p_190570_3_, double x, double y, double z, double xSpeed, double ySpeed, double zSpeed, int... parameters) {}
+}
@@ -0,0 +1,48 @@
+package team.chisel.client.handler;
+
+import org.lwjgl.input.Keyboard;
+
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.settings.KeyBinding;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraftforge.client.settings.KeyConflictContext;
+import net.minecraftforge.client.settings.KeyModifier;
+import net.minecraftforge.fml.client.registry.ClientRegistry;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import net.minecraftforge.fml.common.gameevent.InputEvent.KeyInputEvent;
+import net.minecraftforge.fml.relauncher.Side;
+import net.minecraftforge.fml.relauncher.SideOnly;
+import team.chisel.Chisel;
+import team.chisel.api.IChiselItem;
+import team.chisel.common.item.PacketChiselHistory;
+
+/**
+ * Key bindings to undo and redo in-world chiseling, which only do anything while holding a chisel.
+ */
+@SideOnly(Side.CLIENT)
+public class ChiselHistoryKeys {
+
+    private static final String CATEGORY = "key.categories.chisel";
+
+    public static final KeyBinding UNDO = new KeyBinding("key.chisel.undo", KeyConflictContext.IN_GAME, KeyModifier.CONTROL, Keyboard.KEY_Z, CATEGORY);
+    public static final KeyBinding REDO = new KeyBinding("key.chisel.redo", KeyConflictContext.IN_GAME, KeyModifier.CONTROL, Keyboard.KEY_Y, CATEGORY);
+
+    public static void register() {
+        ClientRegistry.registerKeyBinding(UNDO);
+        ClientRegistry.registerKeyBinding(REDO);
+    }
+
+    @SubscribeEvent
+    public static void onKeyInput(KeyInputEvent event) {
+        EntityPlayer player = Minecraft.getMinecraft().player;
+        if (player == null || !(player.getHeldItemMainhand().getItem() instanceof IChiselItem)) {
+            return;
+        }
+        while (UNDO.isPressed()) {
+            Chisel.network.sendToServer(new PacketChiselHistory(false));
+        }
+        while (REDO.isPressed()) {
+            Chisel.network.sendToServer(new PacketChiselHistory(true));
+        }
+    }
+}
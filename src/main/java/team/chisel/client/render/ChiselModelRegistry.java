@@ -1,5 +1,6 @@
 package team.chisel.client.render;
 
+import java.util.IdentityHashMap;
 import java.util.Map;
 
 import javax.annotation.Nonnull;
@@ -7,7 +8,6 @@ import javax.annotation.Nonnull;
 import com.google.common.collect.Maps;
 
 import lombok.Getter;
-import lombok.RequiredArgsConstructor;
 import net.minecraft.block.Block;
 import net.minecraft.block.properties.IProperty;
 import net.minecraft.block.state.IBlockState;
@@ -27,19 +27,23 @@ public enum ChiselModelRegistry implements Reference {
     
     INSTANCE;
     
-    @RequiredArgsConstructor
     private static class ChiselStateMapper<T extends Block & ICarvable> extends StateMapperBase {
 
         @Getter
         private final T block;
-        
+        private final boolean hasProperties;
+
+        /* Model loading maps every state more than once, so each state's location is only built the first time */
+        private final Map<IBlockState, ModelResourceLocation> locations = new IdentityHashMap<>();
+
+        ChiselStateMapper(T block) {
+            this.block = block;
+            this.hasProperties = block.getBlockState().getProperties().size() > 1;
+        }
+
         ModelResourceLocation getModelResourceLocation(VariationData data, String variant) {
-            String name = block.getRegistryName().getResourcePath();
-            while (Character.isDigit(name.charAt(name.length() - 1))) {
-                name = name.substring(0, name.length() - 1);
-            }
             // This block has additional properties, so don't use a single blockstate file, instead use the provided variant path
-            if (block.getBlockState().getProperties().size() > 1) {
+            if (hasProperties) {
                 return new ModelResourceLocation(new ResourceLocation("chisel", data.path), variant);
             } else { // Otherwise, break the variant name off of the path to use as the variant path
                 int lastslash = data.path.lastIndexOf('/');
@@ -49,10 +53,19 @@ public enum ChiselModelRegistry implements Reference {
 
         @Override
         protected ModelResourceLocation getModelResourceLocation(@Nonnull IBlockState state) {
-            VariationData data = block.getVariationData(block.getVariationIndex(state));
-            Map<IProperty<?>, Comparable<?>> map = Maps.newLinkedHashMap(state.getProperties());
-            map.remove(block.getMetaProp());
-            return getModelResourceLocation(data, getPropertyString(map));
+            ModelResourceLocation location = locations.get(state);
+            if (location == null) {
+                VariationData data = block.getVariationData(block.getVariationIndex(state));
+                String variant = "normal";
+                if (hasProperties) {
+                    Map<IProperty<?>, Comparable<?>> map = Maps.newLinkedHashMap(state.getProperties());
+                    map.remove(block.getMetaProp());
+                    variant = getPropertyString(map);
+                }
+                location = getModelResourceLocation(data, variant);
+                locations.put(state, location);
+            }
+            return location;
         }
     }
 
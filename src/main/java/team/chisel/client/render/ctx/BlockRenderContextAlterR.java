@@ -1,7 +1,5 @@
 package team.chisel.client.render.ctx;
 
-import java.util.Random;
-
 import javax.annotation.Nonnull;
 
 import lombok.Getter;
@@ -12,56 +10,44 @@ import team.chisel.ctm.client.texture.ctx.TextureContextPosition;
 
 public class BlockRenderContextAlterR extends TextureContextPosition {
 
-    private static final Random rand = new Random();
+    /* The constants of java.util.Random's generator */
+    private static final long MULTIPLIER = 0x5DEECE66DL;
+    private static final long ADDEND = 0xBL;
+    private static final long MASK = (1L << 48) - 1;
 
     @Getter
     private final int texture;
 
     public BlockRenderContextAlterR(@Nonnull BlockPos pos, ChiselTextureAlterR tex) {
         super(pos);
-        
-        int num = 0;
-
-        rand.setSeed(MathHelper.getPositionRandom(pos));
-        rand.nextBoolean();
-
-        int x = pos.getX();
-        int y = pos.getY();
-        int z = pos.getZ();
-
-        num += rand.nextInt(2)*2;
-        boolean type = true;
-
-        // If even, switch boolean
-        // If we have a set of multiple coords that are [x, y, z]
-        // [5, 8, 9], [0, 0, 1], [9, 8, 8]...
-
-        if(x % 2 == 0)
-        {
-            type = !type;
-        }
-        // Odd Even Odd
-        // True False True
-
-        if(y % 2 == 0)
-        {
-            type = !type;
-        }
-        // Even Even Even
-        // False True False
+        this.texture = getTexture(pos);
+    }
 
-        if(z % 2 == 0)
-        {
-            type = !type;
-        }
-        // Odd Odd Even
-        // False True True
+    /**
+     * Recreates a context from its {@link #getCompressedData() compressed data}.
+     */
+    public BlockRenderContextAlterR(long data) {
+        super(BlockPos.ORIGIN);
+        this.texture = (int) data;
+    }
 
-        num += type ? 0 : 1;
-        
-        this.texture = num;
+    /**
+     * Picks the quarter of the texture to use at the given position. This is a pure function of the position, as it is called from chunk render threads.
+     * <p>
+     * The random half is the same pick as seeding a {@link java.util.Random} with the position, skipping a boolean and calling {@code nextInt(2)}, so existing builds keep their look.
+     */
+    public static int getTexture(BlockPos pos) {
+        long seed = (MathHelper.getPositionRandom(pos) ^ MULTIPLIER) & MASK;
+        seed = (seed * MULTIPLIER + ADDEND) & MASK;
+        seed = (seed * MULTIPLIER + ADDEND) & MASK;
+        int num = (int) (seed >>> 47) * 2;
+
+        // Alternates with every step along any axis, like a checkerboard
+        num += ~(pos.getX() ^ pos.getY() ^ pos.getZ()) & 1;
+
+        return num;
     }
-    
+
     @Override
     public long getCompressedData() {
         return texture;
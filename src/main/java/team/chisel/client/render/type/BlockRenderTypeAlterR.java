@@ -10,7 +10,6 @@ import team.chisel.ctm.api.texture.ITextureContext;
 import team.chisel.ctm.api.texture.ITextureType;
 import team.chisel.ctm.api.texture.TextureType;
 import team.chisel.ctm.api.util.TextureInfo;
-import team.chisel.ctm.client.texture.ctx.TextureContextPosition;
 
 @TextureType("AR") /* Alernating Random */
 public class BlockRenderTypeAlterR implements ITextureType {
@@ -27,7 +26,7 @@ public class BlockRenderTypeAlterR implements ITextureType {
 
     @Override
     public ITextureContext getContextFromData(long data) {
-        return new TextureContextPosition(BlockPos.fromLong(data));
+        return new BlockRenderContextAlterR(data);
     }
 
     @Override
@@ -2,35 +2,54 @@ package team.chisel.client.util;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import javax.annotation.Nullable;
 import javax.annotation.ParametersAreNonnullByDefault;
 
 import org.lwjgl.opengl.GL11;
 
-import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
-import gnu.trove.list.TDoubleList;
-import gnu.trove.list.array.TDoubleArrayList;
+import gnu.trove.list.TFloatList;
+import gnu.trove.list.TIntList;
+import gnu.trove.list.array.TFloatArrayList;
+import gnu.trove.list.array.TIntArrayList;
+import gnu.trove.map.TLongIntMap;
+import gnu.trove.map.hash.TLongIntHashMap;
+import gnu.trove.set.TLongSet;
+import gnu.trove.set.hash.TLongHashSet;
 import net.minecraft.block.Block;
 import net.minecraft.block.state.IBlockState;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.renderer.BufferBuilder;
+import net.minecraft.client.renderer.GLAllocation;
 import net.minecraft.client.renderer.GlStateManager;
-import net.minecraft.client.renderer.Tessellator;
+import net.minecraft.client.renderer.OpenGlHelper;
+import net.minecraft.client.renderer.WorldVertexBufferUploader;
 import net.minecraft.client.renderer.vertex.DefaultVertexFormats;
+import net.minecraft.client.renderer.vertex.VertexBuffer;
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.init.Blocks;
+import net.minecraft.item.ItemStack;
 import net.minecraft.util.EnumFacing;
+import net.minecraft.util.EnumFacing.AxisDirection;
 import net.minecraft.util.SoundCategory;
 import net.minecraft.util.SoundEvent;
 import net.minecraft.util.Timer;
 import net.minecraft.util.math.AxisAlignedBB;
 import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.Vec3d;
+import net.minecraft.world.ChunkCache;
 import net.minecraft.world.IBlockAccess;
 import net.minecraft.world.IWorldEventListener;
 import net.minecraft.world.World;
+import team.chisel.Chisel;
 import team.chisel.api.carving.CarvingUtils;
 import team.chisel.api.carving.ICarvingGroup;
 import team.chisel.api.carving.IChiselMode;
@@ -44,11 +63,48 @@ public class ChiselModeGeometryCache implements IWorldEventListener {
     private BlockPos origin;
     private EnumFacing side;
     
-    private long[] cacheState = {};
-    
-    private List<BlockPos> candidateCache = new ArrayList<>();
-    private AxisAlignedBB candidateBounds = new AxisAlignedBB(BlockPos.ORIGIN);
-    private TDoubleList geometryCache = new TDoubleArrayList();
+    /** Previews are computed one at a time, off the render thread. */
+    private static final ExecutorService WORKER = Executors.newSingleThreadExecutor(new ThreadFactoryBuilder().setNameFormat("Chisel Preview Worker").setDaemon(true).build());
+
+    /**
+     * Whether a mode overrides the snapshot version of {@link IChiselMode#getCandidates(EntityPlayer, IBlockAccess, ItemStack, EnumFacing, BlockPos, EnumFacing)}. The default reads the live player
+     * and world, so previews for modes which don't are computed on the render thread instead.
+     */
+    private static final ClassValue<Boolean> READS_SNAPSHOT = new ClassValue<Boolean>() {
+
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            try {
+                return type.getMethod("getCandidates", EntityPlayer.class, IBlockAccess.class, ItemStack.class, EnumFacing.class, BlockPos.class, EnumFacing.class)
+                        .getDeclaringClass() != IChiselMode.class;
+            } catch (NoSuchMethodException e) {
+                return false;
+            }
+        }
+    };
+
+    /** The preview on screen. */
+    private Preview preview = Preview.empty(BlockPos.ORIGIN, new long[0], 0);
+
+    /* The geometry is uploaded once per change, to a VBO if available, otherwise to a display list */
+    private @Nullable VertexBuffer vbo;
+    private int displayList = -1;
+    private int vertexCount;
+    private boolean uploaded;
+    /** Whether the geometry was uploaded to {@link #vbo} rather than {@link #displayList}. */
+    private boolean usingVbo;
+
+    /*
+     * The most recently requested preview. The one above stays on screen until it is ready, and results from any earlier request are thrown away.
+     */
+    private long[] requestedState = {};
+    private AxisAlignedBB requestedBounds = new AxisAlignedBB(BlockPos.ORIGIN);
+    private int generation;
+    /** A copy of {@link #generation} for the worker, so it can give up on a stale request early. */
+    private volatile int latest;
+    /** Set when a block update means the preview has to be computed again. Many updates at once, such as from chiseling, only cause one recompute. */
+    private boolean dirty;
+    private boolean failed;
     
     public ChiselModeGeometryCache(IChiselMode mode, BlockPos origin, EnumFacing side) {
         this.mode = mode;
@@ -83,39 +139,232 @@ public class ChiselModeGeometryCache implements IWorldEventListener {
     }
     
     public int size() {
-        return candidateCache.size();
+        return preview.candidates.size();
+    }
+
+    /**
+     * Requests a new preview if a block update made the current one stale. Must be called every frame the preview is in use, whether or not it is drawn.
+     */
+    public void refresh() {
+        if (checkDirty()) {
+            updateCache();
+        }
     }
     
     protected boolean checkDirty() {
-        return !Arrays.equals(cacheState, mode.getCacheState(origin, side));
+        return dirty || !Arrays.equals(requestedState, mode.getCacheState(origin, side));
     }
     
+    /**
+     * Requests a new preview. Candidates and geometry are computed on a background worker, against the chunks around the selection as they are when the worker gets to them, the same way vanilla
+     * builds chunk meshes. Any block update in the area while that is happening requests yet another preview, so a result that may have read a half-changed world is never shown. Modes that can
+     * only read the live world are computed right away on this thread instead.
+     */
     protected void updateCache() {
-        IBlockState state = Minecraft.getMinecraft().world.getBlockState(origin);
+        World world = Minecraft.getMinecraft().world;
+        EntityPlayer player = Minecraft.getMinecraft().player;
+        int gen = ++generation;
+        latest = gen;
+        dirty = false;
+        IBlockState state = world.getBlockState(origin);
         ICarvingGroup group = CarvingUtils.getChiselRegistry().getGroup(state);
-        if (group != null) {
-            this.candidateCache = Lists.newArrayList(mode.getCandidates(Minecraft.getMinecraft().player, origin, side));
-            this.candidateBounds = mode.getBounds(side).offset(origin);
-            this.cacheState = mode.getCacheState(origin, side);
+        if (group == null) {
+            this.requestedState = new long[0];
+            this.requestedBounds = Block.FULL_BLOCK_AABB.offset(origin);
+            install(Preview.empty(origin, requestedState, gen));
+            return;
+        }
+        IChiselMode mode = this.mode;
+        BlockPos origin = this.origin;
+        EnumFacing side = this.side;
+        AxisAlignedBB bounds = mode.getBounds(player, origin, side);
+        long[] cacheState = mode.getCacheState(origin, side);
+        this.requestedState = cacheState;
+        this.requestedBounds = bounds;
+        // Everything the worker needs from the player is read here, as the player keeps changing on this thread
+        ItemStack chisel = player.getHeldItemMainhand().copy();
+        EnumFacing facing = player.getHorizontalFacing();
+        // One block of margin, so faces on the edge of the selection can be culled
+        ChunkCache snapshot = new ChunkCache(world, new BlockPos(bounds.minX - 1, bounds.minY - 1, bounds.minZ - 1), new BlockPos(bounds.maxX, bounds.maxY, bounds.maxZ), 0);
+        Runnable task = () -> {
+            Preview preview;
+            try {
+                preview = compute(gen, snapshot, mode, player, chisel, facing, origin, side, state, bounds, cacheState);
+            } catch (RuntimeException e) {
+                preview = null;
+                Minecraft.getMinecraft().addScheduledTask(() -> {
+                    if (gen == generation) {
+                        // Only the first of a run of failures is logged, as the request is retried every frame
+                        if (!failed) {
+                            Chisel.logger.error("Failed to compute chisel preview for {} at {}", mode.name(), origin, e);
+                            failed = true;
+                        }
+                        dirty = true;
+                    }
+                });
+            }
+            if (preview != null) {
+                Preview result = preview;
+                Minecraft.getMinecraft().addScheduledTask(() -> {
+                    if (gen == generation) {
+                        install(result);
+                    }
+                });
+            }
+        };
+        // On the render thread, the scheduled tasks above run right away
+        if (READS_SNAPSHOT.get(mode.getClass())) {
+            WORKER.execute(task);
         } else {
-            this.candidateCache.clear();
-            this.candidateBounds = Block.FULL_BLOCK_AABB.offset(origin);
-            this.cacheState = new long[0];
+            task.run();
         }
-        draw(state);
     }
-    
-    private void draw(IBlockState state) {
+
+    private static class Preview {
+
+        private final int generation;
+        private final BlockPos origin;
+        private final IBlockState state;
+        private final AxisAlignedBB bounds;
+        private final long[] cacheState;
+
+        private final List<BlockPos> candidates = new ArrayList<>();
+        /** Index of each candidate in {@link #candidates}, by packed position. */
+        private final TLongIntMap index = new TLongIntHashMap(16, 0.5f, Long.MIN_VALUE, -1);
+        /** Each candidate's box, relative to {@link #origin}. */
+        private final List<AxisAlignedBB> boxes = new ArrayList<>();
+        /** Each candidate's visible faces, as bits indexed by {@link EnumFacing#ordinal()}. */
+        private final TIntList faces = new TIntArrayList();
+        /** Which candidates fill their whole block, so their faces can be merged. */
+        private final BitSet cubes = new BitSet();
+
+        /** Quads for the visible faces, as floats relative to {@link #origin}. */
+        private TFloatList geometry = new TFloatArrayList(0);
+
+        Preview(int generation, BlockPos origin, IBlockState state, AxisAlignedBB bounds, long[] cacheState) {
+            this.generation = generation;
+            this.origin = origin;
+            this.state = state;
+            this.bounds = bounds;
+            this.cacheState = cacheState;
+        }
+
+        static Preview empty(BlockPos origin, long[] cacheState, int generation) {
+            return new Preview(generation, origin, Blocks.AIR.getDefaultState(), Block.FULL_BLOCK_AABB.offset(origin), cacheState);
+        }
+
+        void add(BlockPos pos, AxisAlignedBB box, int faceMask) {
+            BlockPos relative = pos.subtract(origin);
+            box = box.offset(-origin.getX(), -origin.getY(), -origin.getZ());
+            index.put(pos.toLong(), candidates.size());
+            cubes.set(candidates.size(), box.equals(new AxisAlignedBB(relative)));
+            candidates.add(pos);
+            boxes.add(box);
+            faces.add(faceMask);
+        }
+
+        /**
+         * Visible faces of full cubes are merged with those next to them in the same plane, into as few rectangles as possible, as large selections are mostly flat walls and floors. Any other
+         * shape is drawn box by box.
+         */
+        void buildGeometry() {
+            TFloatList geometry = new TFloatArrayList(faces.size() * 12);
+            for (int i = 0; i < boxes.size(); i++) {
+                if (!cubes.get(i)) {
+                    emitBox(geometry, boxes.get(i), faces.get(i));
+                }
+            }
+            for (EnumFacing face : EnumFacing.VALUES) {
+                List<BlockPos> exposed = new ArrayList<>();
+                TLongSet remaining = new TLongHashSet();
+                for (int i = cubes.nextSetBit(0); i >= 0; i = cubes.nextSetBit(i + 1)) {
+                    if (hasFace(faces.get(i), face)) {
+                        BlockPos relative = candidates.get(i).subtract(origin);
+                        exposed.add(relative);
+                        remaining.add(relative.toLong());
+                    }
+                }
+                EnumFacing u = PLANE_AXES[face.getAxis().ordinal()][0];
+                EnumFacing v = PLANE_AXES[face.getAxis().ordinal()][1];
+                exposed.sort(Comparator.<BlockPos> comparingInt(pos -> getCoordinate(pos, face.getAxis()))
+                        .thenComparingInt(pos -> getCoordinate(pos, v.getAxis()))
+                        .thenComparingInt(pos -> getCoordinate(pos, u.getAxis())));
+                for (BlockPos start : exposed) {
+                    if (!remaining.contains(start.toLong())) {
+                        continue;
+                    }
+                    int width = 1;
+                    while (remaining.contains(start.offset(u, width).toLong())) {
+                        width++;
+                    }
+                    int height = 1;
+                    rows: while (true) {
+                        for (int w = 0; w < width; w++) {
+                            if (!remaining.contains(start.offset(u, w).offset(v, height).toLong())) {
+                                break rows;
+                            }
+                        }
+                        height++;
+                    }
+                    for (int h = 0; h < height; h++) {
+                        for (int w = 0; w < width; w++) {
+                            remaining.remove(start.offset(u, w).offset(v, h).toLong());
+                        }
+                    }
+                    BlockPos end = start.offset(u, width).offset(v, height).offset(EnumFacing.getFacingFromAxis(AxisDirection.POSITIVE, face.getAxis()));
+                    emitBox(geometry, new AxisAlignedBB(start, end), 1 << face.ordinal());
+                }
+            }
+            this.geometry = geometry;
+        }
+    }
+
+    /** The two directions spanning the plane of a face, by the face's axis. */
+    private static final EnumFacing[][] PLANE_AXES = {
+            { EnumFacing.SOUTH, EnumFacing.UP },
+            { EnumFacing.EAST, EnumFacing.SOUTH },
+            { EnumFacing.EAST, EnumFacing.UP }
+    };
+
+    private static int getCoordinate(BlockPos pos, EnumFacing.Axis axis) {
+        switch (axis) {
+        case X:
+            return pos.getX();
+        case Y:
+            return pos.getY();
+        default:
+            return pos.getZ();
+        }
+    }
+
+    private void install(Preview preview) {
+        this.preview = preview;
+        this.failed = false;
+        this.uploaded = false;
+    }
+
+    /**
+     * Runs on the worker.
+     * 
+     * @return The preview, or null if it was superseded before it was done.
+     */
+    private @Nullable Preview compute(int gen, ChunkCache snapshot, IChiselMode mode, EntityPlayer player, ItemStack chisel, EnumFacing facing, BlockPos origin, EnumFacing side, IBlockState state, AxisAlignedBB bounds, long[] cacheState) {
+        if (gen != latest) {
+            return null;
+        }
 //        Pair<ResourceLocation, ResourceLocation> overlay = mode.getOverlayTex();
 //        TextureMap map = Minecraft.getMinecraft().getTextureMapBlocks();
 //        TextureInfo info = new TextureInfo(new TextureAtlasSprite[] {map.getAtlasSprite(overlay.getLeft().toString()), map.getAtlasSprite(overlay.getRight().toString())}, Optional.empty(), BlockRenderLayer.TRANSLUCENT);
 //        ICTMTexture<?> tex = CTM_TYPE.makeTexture(info);
 
-        geometryCache.clear();
-        RegionCache world = new RegionCache(origin, 20, Minecraft.getMinecraft().world);
-        for (BlockPos pos : getCandidates()) {
-            AxisAlignedBB bb = state.getSelectedBoundingBox(Minecraft.getMinecraft().world, pos);
-            drawCulledBox(bb, world, pos);
+        RegionCache world = new RegionCache(origin, 20, snapshot);
+        Preview preview = new Preview(gen, origin, state, bounds, cacheState);
+        for (BlockPos pos : mode.getCandidates(player, world, chisel, facing, origin, side)) {
+            if ((preview.candidates.size() & 255) == 255 && gen != latest) {
+                return null;
+            }
+            AxisAlignedBB bb = state.getBoundingBox(world, pos).offset(pos);
+            preview.add(pos, bb, getFaceMask(world, pos));
             // UnpackedBakedQuad.Builder builder = new UnpackedBakedQuad.Builder(DefaultVertexFormats.POSITION_COLOR);
             // float[] vpos = new float[]{ (float) bb.minX, (float) bb.minY, (float) bb.maxZ, (float) bb.maxX, (float) bb.minY, (float) bb.maxZ, (float) bb.maxX, (float) bb.maxY, (float) bb.maxZ,
             // (float) bb.minX, (float) bb.maxY, (float) bb.maxZ };
@@ -134,79 +383,190 @@ public class ChiselModeGeometryCache implements IWorldEventListener {
             // Tessellator.getInstance().draw();
             //// }
         }
+        preview.buildGeometry();
+        return preview;
     }
 
-    private void drawCulledBox(AxisAlignedBB bb, IBlockAccess world, BlockPos pos) {
+    private static int getFaceMask(IBlockAccess world, BlockPos pos) {
         IBlockState state = world.getBlockState(pos);
-        if (state.shouldSideBeRendered(world, pos, EnumFacing.DOWN)) {
-            pos(bb.maxX, bb.minY, bb.minZ);
-            pos(bb.maxX, bb.minY, bb.maxZ);
-            pos(bb.minX, bb.minY, bb.maxZ);
-            pos(bb.minX, bb.minY, bb.minZ);
-        }
-        if (state.shouldSideBeRendered(world, pos, EnumFacing.UP)) {
-            pos(bb.minX, bb.maxY, bb.maxZ);
-            pos(bb.maxX, bb.maxY, bb.maxZ);
-            pos(bb.maxX, bb.maxY, bb.minZ);
-            pos(bb.minX, bb.maxY, bb.minZ);
-        }
-        if (state.shouldSideBeRendered(world, pos, EnumFacing.NORTH)) {
-            pos(bb.minX, bb.maxY, bb.minZ);
-            pos(bb.maxX, bb.maxY, bb.minZ);
-            pos(bb.maxX, bb.minY, bb.minZ);
-            pos(bb.minX, bb.minY, bb.minZ);
-        }
-        if (state.shouldSideBeRendered(world, pos, EnumFacing.SOUTH)) {
-            pos(bb.minX, bb.minY, bb.maxZ);
-            pos(bb.maxX, bb.minY, bb.maxZ);
-            pos(bb.maxX, bb.maxY, bb.maxZ);
-            pos(bb.minX, bb.maxY, bb.maxZ);
-        }
-        if (state.shouldSideBeRendered(world, pos, EnumFacing.WEST)) {
-            pos(bb.minX, bb.minY, bb.minZ);
-            pos(bb.minX, bb.minY, bb.maxZ);
-            pos(bb.minX, bb.maxY, bb.maxZ);
-            pos(bb.minX, bb.maxY, bb.minZ);
-        }
-        if (state.shouldSideBeRendered(world, pos, EnumFacing.EAST)) {
-            pos(bb.maxX, bb.maxY, bb.minZ);
-            pos(bb.maxX, bb.maxY, bb.maxZ);
-            pos(bb.maxX, bb.minY, bb.maxZ);
-            pos(bb.maxX, bb.minY, bb.minZ);
+        int mask = 0;
+        for (EnumFacing face : EnumFacing.VALUES) {
+            if (state.shouldSideBeRendered(world, pos, face)) {
+                mask |= 1 << face.ordinal();
+            }
+        }
+        return mask;
+    }
+
+    private static boolean hasFace(int mask, EnumFacing face) {
+        return (mask & 1 << face.ordinal()) != 0;
+    }
+
+    private static void emitBox(TFloatList geometry, AxisAlignedBB bb, int mask) {
+        if (hasFace(mask, EnumFacing.DOWN)) {
+            pos(geometry, bb.maxX, bb.minY, bb.minZ);
+            pos(geometry, bb.maxX, bb.minY, bb.maxZ);
+            pos(geometry, bb.minX, bb.minY, bb.maxZ);
+            pos(geometry, bb.minX, bb.minY, bb.minZ);
+        }
+        if (hasFace(mask, EnumFacing.UP)) {
+            pos(geometry, bb.minX, bb.maxY, bb.maxZ);
+            pos(geometry, bb.maxX, bb.maxY, bb.maxZ);
+            pos(geometry, bb.maxX, bb.maxY, bb.minZ);
+            pos(geometry, bb.minX, bb.maxY, bb.minZ);
+        }
+        if (hasFace(mask, EnumFacing.NORTH)) {
+            pos(geometry, bb.minX, bb.maxY, bb.minZ);
+            pos(geometry, bb.maxX, bb.maxY, bb.minZ);
+            pos(geometry, bb.maxX, bb.minY, bb.minZ);
+            pos(geometry, bb.minX, bb.minY, bb.minZ);
+        }
+        if (hasFace(mask, EnumFacing.SOUTH)) {
+            pos(geometry, bb.minX, bb.minY, bb.maxZ);
+            pos(geometry, bb.maxX, bb.minY, bb.maxZ);
+            pos(geometry, bb.maxX, bb.maxY, bb.maxZ);
+            pos(geometry, bb.minX, bb.maxY, bb.maxZ);
+        }
+        if (hasFace(mask, EnumFacing.WEST)) {
+            pos(geometry, bb.minX, bb.minY, bb.minZ);
+            pos(geometry, bb.minX, bb.minY, bb.maxZ);
+            pos(geometry, bb.minX, bb.maxY, bb.maxZ);
+            pos(geometry, bb.minX, bb.maxY, bb.minZ);
+        }
+        if (hasFace(mask, EnumFacing.EAST)) {
+            pos(geometry, bb.maxX, bb.maxY, bb.minZ);
+            pos(geometry, bb.maxX, bb.maxY, bb.maxZ);
+            pos(geometry, bb.maxX, bb.minY, bb.maxZ);
+            pos(geometry, bb.maxX, bb.minY, bb.minZ);
         }
     }
     
-    private void pos(double x, double y, double z) {
-        geometryCache.add(x);
-        geometryCache.add(y);
-        geometryCache.add(z);
+    private static void pos(TFloatList geometry, double x, double y, double z) {
+        geometry.add((float) x);
+        geometry.add((float) y);
+        geometry.add((float) z);
+    }
+
+    private void upload() {
+        TFloatList geometry = preview.geometry;
+        vertexCount = geometry.size() / 3;
+        BufferBuilder buf = new BufferBuilder(Math.max(64, geometry.size()));
+        buf.begin(GL11.GL_QUADS, DefaultVertexFormats.POSITION);
+        for (int i = 0; i < geometry.size(); i += 3) {
+            buf.pos(geometry.get(i), geometry.get(i + 1), geometry.get(i + 2)).endVertex();
+        }
+        buf.finishDrawing();
+        if (usingVbo != OpenGlHelper.useVbo()) {
+            // VBOs were turned on or off, so the old buffer or list is of no use any more
+            delete();
+            usingVbo = OpenGlHelper.useVbo();
+        }
+        if (usingVbo) {
+            if (vbo == null) {
+                vbo = new VertexBuffer(DefaultVertexFormats.POSITION);
+            }
+            vbo.bufferData(buf.getByteBuffer());
+        } else {
+            if (displayList < 0) {
+                displayList = GLAllocation.generateDisplayLists(1);
+            }
+            GlStateManager.glNewList(displayList, GL11.GL_COMPILE);
+            new WorldVertexBufferUploader().draw(buf);
+            GlStateManager.glEndList();
+        }
+        uploaded = true;
+    }
+
+    /**
+     * Frees the GL objects holding the geometry. They are created again on the next draw.
+     */
+    public void delete() {
+        if (vbo != null) {
+            vbo.deleteGlBuffers();
+            vbo = null;
+        }
+        if (displayList >= 0) {
+            GLAllocation.deleteDisplayLists(displayList);
+            displayList = -1;
+        }
+        uploaded = false;
     }
     
     public Iterable<@NonnullType ? extends BlockPos> getCandidates() {
-        return candidateCache;
+        return preview.candidates;
     }
     
+    /**
+     * Sorts a block change into one of three kinds:
+     * <ul>
+     * <li>Changes that could add or remove candidates, which need the preview to be computed again. That is any change to a candidate, to or from the state being previewed, or to whether a block
+     * next to a candidate or a would-be candidate is solid on that side, which decides if it counts as obscured.</li>
+     * <li>Changes next to candidates that only hide or reveal their faces, for which just those candidates' faces are recomputed.</li>
+     * <li>Anything else, which is ignored.</li>
+     * </ul>
+     */
     @Override
     public void notifyBlockUpdate(World worldIn, BlockPos pos, IBlockState oldState, IBlockState newState, int flags) {
-        checkRedraw(new AxisAlignedBB(pos));
+        if (oldState == newState || dirty) {
+            return;
+        }
+        Preview preview = this.preview;
+        if (preview.generation != generation && requestedBounds.grow(1).contains(new Vec3d(pos).addVector(0.5, 0.5, 0.5))) {
+            // The request in progress may or may not have seen this
+            dirty = true;
+            return;
+        }
+        if (!preview.bounds.grow(1).contains(new Vec3d(pos).addVector(0.5, 0.5, 0.5))) {
+            return;
+        }
+        if (oldState == preview.state || newState == preview.state || preview.index.containsKey(pos.toLong())) {
+            dirty = true;
+            return;
+        }
+        boolean patched = false;
+        for (EnumFacing face : EnumFacing.VALUES) {
+            BlockPos neighbor = pos.offset(face);
+            int i = preview.index.get(neighbor.toLong());
+            if (i < 0 && worldIn.getBlockState(neighbor) != preview.state) {
+                continue;
+            }
+            if (oldState.isSideSolid(worldIn, pos, face) != newState.isSideSolid(worldIn, pos, face)) {
+                dirty = true;
+                return;
+            }
+            if (i >= 0) {
+                int mask = getFaceMask(worldIn, neighbor);
+                if (mask != preview.faces.get(i)) {
+                    preview.faces.set(i, mask);
+                    patched = true;
+                }
+            }
+        }
+        if (patched) {
+            preview.buildGeometry();
+            uploaded = false;
+        }
     }
 
     @Override
     public void markBlockRangeForRenderUpdate(int x1, int y1, int z1, int x2, int y2, int z2) {
-        checkRedraw(new AxisAlignedBB(x1, y1, z1, x2, y2, z2));
-    }
-    
-    private void checkRedraw(AxisAlignedBB updateRange) {
-        if (updateRange.intersects(candidateBounds)) {
-            Minecraft.getMinecraft().addScheduledTask(this::updateCache);
+        // Single block changes arrive through notifyBlockUpdate. The only render range updates that change blocks are whole chunks being replaced, e.g. by a chunk data packet.
+        if (x2 - x1 >= 15 && z2 - z1 >= 15) {
+            AxisAlignedBB range = new AxisAlignedBB(x1, y1, z1, x2 + 1, y2 + 1, z2 + 1);
+            if (range.intersects(preview.bounds) || range.intersects(requestedBounds)) {
+                dirty = true;
+            }
         }
     }
     
     private float anim = 0;
     
-    public void draw() {
-        if (checkDirty()) {
-            updateCache();
+    /**
+     * Draws the outline, relative to the given camera position.
+     */
+    public void draw(double camX, double camY, double camZ) {
+        if (!uploaded || usingVbo != OpenGlHelper.useVbo()) {
+            upload();
         }
 
         Timer timer = ClientUtil.getTimer();
@@ -219,12 +579,22 @@ public class ChiselModeGeometryCache implements IWorldEventListener {
         }
         
         GlStateManager.pushMatrix();
-        BufferBuilder buf = Tessellator.getInstance().getBuffer();
-        buf.begin(GL11.GL_QUADS, DefaultVertexFormats.POSITION_COLOR);
-        for (int i = 0; i < geometryCache.size(); i += 3) {
-            buf.pos(geometryCache.get(i), geometryCache.get(i + 1), geometryCache.get(i + 2)).color(c, c, c, a).endVertex();
+        BlockPos geometryOrigin = preview.origin;
+        GlStateManager.translate(geometryOrigin.getX() - camX, geometryOrigin.getY() - camY, geometryOrigin.getZ() - camZ);
+        GlStateManager.color(c, c, c, a);
+        if (vertexCount > 0) {
+            if (usingVbo) {
+                vbo.bindBuffer();
+                GlStateManager.glVertexPointer(3, GL11.GL_FLOAT, 12, 0);
+                GlStateManager.glEnableClientState(GL11.GL_VERTEX_ARRAY);
+                vbo.drawArrays(GL11.GL_QUADS);
+                GlStateManager.glDisableClientState(GL11.GL_VERTEX_ARRAY);
+                vbo.unbindBuffer();
+            } else {
+                GlStateManager.callList(displayList);
+            }
         }
-        Tessellator.getInstance().draw();
+        GlStateManager.color(1, 1, 1, 1);
         GlStateManager.popMatrix();
     }
 
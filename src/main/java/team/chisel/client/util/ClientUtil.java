@@ -1,6 +1,7 @@
 package team.chisel.client.util;
 
 import java.lang.reflect.Field;
+import java.util.Collection;
 
 import javax.annotation.Nullable;
 import javax.annotation.ParametersAreNonnullByDefault;
@@ -22,6 +23,7 @@ import net.minecraft.util.math.BlockPos;
 import net.minecraft.world.World;
 import net.minecraftforge.fml.relauncher.ReflectionHelper;
 import team.chisel.Chisel;
+import team.chisel.client.util.ParticleBudget.Source;
 
 @ParametersAreNonnullByDefault
 public class ClientUtil {
@@ -30,7 +32,7 @@ public class ClientUtil {
         IBlockState state = world.getBlockState(pos);
         state = state.getActualState(world, pos);
 
-        if (state.getRenderType() != EnumBlockRenderType.INVISIBLE) {
+        if (state.getRenderType() != EnumBlockRenderType.INVISIBLE && ParticleBudget.request(Source.HIT, pos, 1) > 0) {
             int i = pos.getX();
             int j = pos.getY();
             int k = pos.getZ();
@@ -76,29 +78,70 @@ public class ClientUtil {
     }
 
     public static void addDestroyEffects(World world, BlockPos pos, IBlockState state) {
+        addDestroyEffects(world, pos, state, 64);
+    }
+
+    /**
+     * Spreads as many destroy particles as the {@link ParticleBudget} allows evenly over the given positions, with no more than the usual 64 on any one block.
+     */
+    public static void addDestroyEffects(World world, Collection<? extends BlockPos> positions, IBlockState state) {
+        int size = positions.size();
+        int budget = ParticleBudget.request(Source.DESTROY, size * 64);
+        int i = 0;
+        for (BlockPos pos : positions) {
+            int count = (int) ((long) budget * (i + 1) / size - (long) budget * i / size);
+            if (count > 0) {
+                spawnDestroyEffects(world, pos, state, count);
+            }
+            i++;
+        }
+    }
+
+    /**
+     * Spawns {@code count} destroy particles for the given block, or as many as the {@link ParticleBudget} allows. Up to 64 particles are scattered randomly; from 64 on, they fill the usual 4x4x4
+     * grid.
+     */
+    public static void addDestroyEffects(World world, BlockPos pos, IBlockState state, int count) {
+        count = ParticleBudget.request(Source.DESTROY, pos, count);
+        if (count > 0) {
+            spawnDestroyEffects(world, pos, state, count);
+        }
+    }
 
+    private static void spawnDestroyEffects(World world, BlockPos pos, IBlockState state, int count) {
         state = state.getActualState(world, pos);
         int i = 4;
         
         TextureAtlasSprite texture = Minecraft.getMinecraft().getBlockRendererDispatcher().getModelForState(state).getParticleTexture();
 
+        if (count < i * i * i) {
+            for (int n = 0; n < count; n++) {
+                spawnDestroyParticle(pos, state, texture, pos.getX() + world.rand.nextDouble(), pos.getY() + world.rand.nextDouble(), pos.getZ() + world.rand.nextDouble());
+            }
+            return;
+        }
+
         for (int j = 0; j < i; ++j) {
             for (int k = 0; k < i; ++k) {
                 for (int l = 0; l < i; ++l) {
                     double d0 = (double) pos.getX() + ((double) j + 0.5D) / (double) i;
                     double d1 = (double) pos.getY() + ((double) k + 0.5D) / (double) i;
                     double d2 = (double) pos.getZ() + ((double) l + 0.5D) / (double) i;
-                    Particle fx = Minecraft.getMinecraft().effectRenderer.spawnEffectParticle(EnumParticleTypes.BLOCK_CRACK.getParticleID(), d0, d1, d2, d0 - pos.getX() - 0.5D,
-                            d1 - pos.getY() - 0.5D, d2 - pos.getZ() - 0.5D, Block.getIdFromBlock(state.getBlock()));
-
-                    if (fx != null) {
-                        ((ParticleDigging) fx).setBlockPos(pos).setParticleTexture(texture);
-                    }
+                    spawnDestroyParticle(pos, state, texture, d0, d1, d2);
                 }
             }
         }
     }
 
+    private static void spawnDestroyParticle(BlockPos pos, IBlockState state, TextureAtlasSprite texture, double x, double y, double z) {
+        Particle fx = Minecraft.getMinecraft().effectRenderer.spawnEffectParticle(EnumParticleTypes.BLOCK_CRACK.getParticleID(), x, y, z, x - pos.getX() - 0.5D,
+                y - pos.getY() - 0.5D, z - pos.getZ() - 0.5D, Block.getIdFromBlock(state.getBlock()));
+
+        if (fx != null) {
+            ((ParticleDigging) fx).setBlockPos(pos).setParticleTexture(texture);
+        }
+    }
+
     @Nullable
     private static final Field timerField = initTimer();
 
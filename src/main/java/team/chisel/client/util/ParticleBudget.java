@@ -0,0 +1,135 @@
+package team.chisel.client.util;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+import javax.annotation.ParametersAreNonnullByDefault;
+
+import gnu.trove.map.TLongIntMap;
+import gnu.trove.map.hash.TLongIntHashMap;
+import net.minecraft.client.Minecraft;
+import net.minecraft.util.math.BlockPos;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import net.minecraftforge.fml.common.gameevent.TickEvent.Phase;
+import net.minecraftforge.fml.common.gameevent.TickEvent.RenderTickEvent;
+import net.minecraftforge.fml.relauncher.Side;
+import net.minecraftforge.fml.relauncher.SideOnly;
+import team.chisel.common.config.Configurations;
+
+/**
+ * Limits how many particles Chisel's effects spawn each frame, so that many effects at once (such as a room full of auto chisels) can't drown the particle engine.
+ * <p>
+ * Each kind of effect gets its own share of {@link Configurations#chiselParticleBudget}, scaled by the vanilla particle setting, and down further when the frame rate drops. Effects of the same kind
+ * at the same position in one frame are coalesced, so only the largest of them is spawned.
+ */
+@SideOnly(Side.CLIENT)
+@ParametersAreNonnullByDefault
+public class ParticleBudget {
+
+    public enum Source {
+        HIT,
+        DESTROY,
+        AUTO_CHISEL,
+        ;
+    }
+
+    /** Below this frame rate, budgets shrink in proportion. */
+    private static final int TARGET_FPS = 30;
+
+    private static final Map<Source, Frame> frames = new EnumMap<>(Source.class);
+
+    static {
+        for (Source source : Source.values()) {
+            frames.put(source, new Frame());
+        }
+    }
+
+    private static class Frame {
+
+        private int spent;
+        private final TLongIntMap positions = new TLongIntHashMap(16, 0.5f, Long.MIN_VALUE, 0);
+    }
+
+    private static float getScale() {
+        Minecraft mc = Minecraft.getMinecraft();
+        float scale;
+        switch (mc.gameSettings.particleSetting) {
+        case 0:
+            scale = 1;
+            break;
+        case 1:
+            // Vanilla drops about two thirds of its own particles on this setting
+            scale = 1 / 3f;
+            break;
+        default:
+            return 0;
+        }
+        int fps = Minecraft.getDebugFPS();
+        if (fps > 0 && fps < TARGET_FPS) {
+            scale *= (float) fps / TARGET_FPS;
+        }
+        return scale;
+    }
+
+    /**
+     * Asks to spawn {@code count} particles for an effect which is not tied to one position, and so is never coalesced.
+     *
+     * @return How many of them to actually spawn, from 0 to {@code count}.
+     */
+    public static int request(Source source, int count) {
+        return grant(frames.get(source), count);
+    }
+
+    /**
+     * Asks to spawn {@code count} particles for an effect at the given position.
+     *
+     * @return How many of them to actually spawn, from 0 to {@code count}.
+     */
+    public static int request(Source source, BlockPos pos, int count) {
+        return request(source, pos, 0, count);
+    }
+
+    /**
+     * As {@link #request(Source, BlockPos, int)}, for one of several distinct effects of the same kind, which are only coalesced with effects with the same {@code effect} number.
+     */
+    public static int request(Source source, BlockPos pos, int effect, int count) {
+        Frame frame = frames.get(source);
+        long key = pos.toLong() ^ effect * 0x9E3779B97F4A7C15L;
+        int coalesced = frame.positions.get(key);
+        if (coalesced >= count) {
+            return 0;
+        }
+        int granted = grant(frame, count - coalesced);
+        if (granted > 0) {
+            frame.positions.put(key, count);
+        }
+        return granted;
+    }
+
+    private static int grant(Frame frame, int count) {
+        int wanted = (int) Math.ceil(count * getScale());
+        int granted = Math.min(wanted, Configurations.chiselParticleBudget - frame.spent);
+        if (granted <= 0) {
+            return 0;
+        }
+        frame.spent += granted;
+        return granted;
+    }
+
+    /**
+     * Picks which of {@code total} evenly spaced particles to spawn when only {@code granted} of them are allowed, so that a reduced effect still covers the same area.
+     */
+    public static boolean shouldSpawn(int index, int granted, int total) {
+        return (long) (index + 1) * granted / total > (long) index * granted / total;
+    }
+
+    @SubscribeEvent
+    public static void onRenderTick(RenderTickEvent event) {
+        if (event.phase == Phase.START) {
+            for (Frame frame : frames.values()) {
+                frame.spent = 0;
+                frame.positions.clear();
+            }
+        }
+    }
+}
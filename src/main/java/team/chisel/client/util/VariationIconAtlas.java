@@ -0,0 +1,178 @@
+package team.chisel.client.util;
+
+import java.util.List;
+
+import javax.annotation.ParametersAreNonnullByDefault;
+
+import org.lwjgl.opengl.GL11;
+
+import gnu.trove.map.TLongIntMap;
+import gnu.trove.map.hash.TLongIntHashMap;
+import net.minecraft.block.Block;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.gui.ScaledResolution;
+import net.minecraft.client.renderer.BufferBuilder;
+import net.minecraft.client.renderer.GlStateManager;
+import net.minecraft.client.renderer.OpenGlHelper;
+import net.minecraft.client.renderer.RenderHelper;
+import net.minecraft.client.renderer.Tessellator;
+import net.minecraft.client.renderer.vertex.DefaultVertexFormats;
+import net.minecraft.client.resources.IResourceManager;
+import net.minecraft.client.resources.IResourceManagerReloadListener;
+import net.minecraft.client.shader.Framebuffer;
+import net.minecraft.inventory.Slot;
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemBlock;
+import net.minecraft.item.ItemStack;
+import net.minecraft.util.BlockRenderLayer;
+import net.minecraftforge.fml.relauncher.Side;
+import net.minecraftforge.fml.relauncher.SideOnly;
+
+/**
+ * Inventory icons of chisel variations, rendered once into an offscreen texture, so the selection grid of the chisel GUIs can be drawn as plain textured quads in a single draw call instead of
+ * rendering every item model each frame.
+ * <p>
+ * Icons are baked the first time they are shown, at the current GUI scale so they stay pixel exact. The atlas starts over when it fills up, when the GUI scale changes, and after a resource reload.
+ */
+@SideOnly(Side.CLIENT)
+@ParametersAreNonnullByDefault
+public enum VariationIconAtlas implements IResourceManagerReloadListener {
+
+    INSTANCE;
+
+    private static final int COLUMNS = 16;
+
+    private static final int MISSING = -1;
+
+    private final TLongIntMap cells = new TLongIntHashMap(64, 0.5f, Long.MIN_VALUE, MISSING);
+    private Framebuffer framebuffer;
+    private int cellSize;
+
+    private static long getKey(ItemStack stack) {
+        return (long) Item.getIdFromItem(stack.getItem()) << 32 | stack.getMetadata();
+    }
+
+    /**
+     * @return False if icons can't be baked on this system, in which case slots must be drawn the normal way.
+     */
+    public boolean isAvailable() {
+        return OpenGlHelper.isFramebufferEnabled();
+    }
+
+    /**
+     * @return True if the given stack is drawn by {@link #draw(List, int, int)}, rather than by its slot.
+     */
+    public boolean contains(ItemStack stack) {
+        return canBake(stack) && cells.containsKey(getKey(stack));
+    }
+
+    /**
+     * Stacks with an enchantment glint are not baked, as it would not animate. Neither are translucent blocks, as baking blends their colour with their alpha once, and drawing the atlas does it
+     * again, which would make them too dark and too transparent.
+     */
+    @SuppressWarnings("deprecation")
+    private static boolean canBake(ItemStack stack) {
+        if (stack.isEmpty() || stack.hasEffect()) {
+            return false;
+        }
+        if (stack.getItem() instanceof ItemBlock) {
+            Block block = ((ItemBlock) stack.getItem()).getBlock();
+            return !block.canRenderInLayer(block.getStateFromMeta(stack.getMetadata()), BlockRenderLayer.TRANSLUCENT);
+        }
+        return true;
+    }
+
+    /**
+     * Draws the stacks in the given slots from the atlas, baking any icons it does not have yet. Stacks which {@link #canBake(ItemStack) can't be baked} are skipped.
+     */
+    public void draw(List<Slot> slots, int left, int top) {
+        if (!isAvailable()) {
+            return;
+        }
+        int scale = new ScaledResolution(Minecraft.getMinecraft()).getScaleFactor();
+        if (framebuffer == null || cellSize != 16 * scale) {
+            reset(16 * scale);
+        }
+        for (Slot slot : slots) {
+            ItemStack stack = slot.getStack();
+            if (canBake(stack) && !cells.containsKey(getKey(stack))) {
+                if (cells.size() == COLUMNS * COLUMNS) {
+                    clear();
+                }
+                bake(stack, cells.size());
+            }
+        }
+
+        float cell = 1f / COLUMNS;
+        framebuffer.bindFramebufferTexture();
+        GlStateManager.enableBlend();
+        GlStateManager.blendFunc(GlStateManager.SourceFactor.SRC_ALPHA, GlStateManager.DestFactor.ONE_MINUS_SRC_ALPHA);
+        GlStateManager.color(1, 1, 1, 1);
+        BufferBuilder buffer = Tessellator.getInstance().getBuffer();
+        buffer.begin(GL11.GL_QUADS, DefaultVertexFormats.POSITION_TEX);
+        for (Slot slot : slots) {
+            if (!contains(slot.getStack())) {
+                continue;
+            }
+            int index = cells.get(getKey(slot.getStack()));
+            int x = left + slot.xPos;
+            int y = top + slot.yPos;
+            // Framebuffer textures are upside down
+            float u = (index % COLUMNS) * cell;
+            float v = 1 - (index / COLUMNS) * cell;
+            buffer.pos(x, y + 16, 0).tex(u, v - cell).endVertex();
+            buffer.pos(x + 16, y + 16, 0).tex(u + cell, v - cell).endVertex();
+            buffer.pos(x + 16, y, 0).tex(u + cell, v).endVertex();
+            buffer.pos(x, y, 0).tex(u, v).endVertex();
+        }
+        Tessellator.getInstance().draw();
+        GlStateManager.disableBlend();
+    }
+
+    private void bake(ItemStack stack, int index) {
+        Minecraft mc = Minecraft.getMinecraft();
+        int size = cellSize * COLUMNS;
+        framebuffer.bindFramebuffer(true);
+        GlStateManager.matrixMode(GL11.GL_PROJECTION);
+        GlStateManager.pushMatrix();
+        GlStateManager.loadIdentity();
+        GlStateManager.ortho(0, size, size, 0, 1000, 3000);
+        GlStateManager.matrixMode(GL11.GL_MODELVIEW);
+        GlStateManager.pushMatrix();
+        GlStateManager.loadIdentity();
+        GlStateManager.translate((index % COLUMNS) * cellSize, (index / COLUMNS) * cellSize, -2000);
+        GlStateManager.scale(cellSize / 16f, cellSize / 16f, 1);
+        RenderHelper.enableGUIStandardItemLighting();
+        mc.getRenderItem().renderItemAndEffectIntoGUI(stack, 0, 0);
+        RenderHelper.disableStandardItemLighting();
+        GlStateManager.popMatrix();
+        GlStateManager.matrixMode(GL11.GL_PROJECTION);
+        GlStateManager.popMatrix();
+        GlStateManager.matrixMode(GL11.GL_MODELVIEW);
+        mc.getFramebuffer().bindFramebuffer(true);
+        cells.put(getKey(stack), index);
+    }
+
+    private void reset(int cellSize) {
+        this.cellSize = cellSize;
+        if (framebuffer != null) {
+            framebuffer.deleteFramebuffer();
+        }
+        framebuffer = new Framebuffer(cellSize * COLUMNS, cellSize * COLUMNS, true);
+        framebuffer.setFramebufferColor(0, 0, 0, 0);
+        clear();
+    }
+
+    private void clear() {
+        cells.clear();
+        framebuffer.framebufferClear();
+        Minecraft.getMinecraft().getFramebuffer().bindFramebuffer(true);
+    }
+
+    @Override
+    public void onResourceManagerReload(IResourceManager resourceManager) {
+        if (framebuffer != null) {
+            clear();
+        }
+    }
+}
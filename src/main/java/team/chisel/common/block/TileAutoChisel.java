@@ -45,6 +45,8 @@ import team.chisel.api.IChiselItem;
 import team.chisel.api.carving.CarvingUtils;
 import team.chisel.api.carving.ICarvingGroup;
 import team.chisel.api.carving.ICarvingVariation;
+import team.chisel.client.util.ParticleBudget;
+import team.chisel.client.util.ParticleBudget.Source;
 import team.chisel.common.config.Configurations;
 import team.chisel.common.util.SoundUtil;
 
@@ -504,10 +506,20 @@ public class TileAutoChisel extends TileEntity implements ITickable, IWorldNamea
     @SuppressWarnings("null")
     private void spawnItemBreakFX(ItemStack stack) {
         int i = 3;
+        int total = (i + 1) * (i + 1) * (i + 1);
+        // The chisel breaking and the item being chiseled are separate bursts at the same place
+        int granted = ParticleBudget.request(Source.AUTO_CHISEL, pos, Item.getIdFromItem(stack.getItem()) << 16 | stack.getMetadata(), total);
+        if (granted == 0) {
+            return;
+        }
         float mid = i / 2f;
+        int n = 0;
         for (int j = 0; j <= i; ++j) {
             for (int k = 0; k <= i; ++k) {
                 for (int l = 0; l <= i; ++l) {
+                    if (!ParticleBudget.shouldSpawn(n++, granted, total)) {
+                        continue;
+                    }
                     double vx = (mid - j) * 0.05;
                     double vz = (mid - k) * 0.05;
                     double vy = (mid - l) * 0.25;
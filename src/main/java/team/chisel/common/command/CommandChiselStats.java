@@ -0,0 +1,50 @@
+package team.chisel.common.command;
+
+import java.util.List;
+
+import javax.annotation.ParametersAreNonnullByDefault;
+
+import net.minecraft.command.CommandBase;
+import net.minecraft.command.CommandException;
+import net.minecraft.command.ICommandSender;
+import net.minecraft.entity.player.EntityPlayerMP;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.util.text.TextComponentTranslation;
+import team.chisel.common.config.Configurations;
+import team.chisel.common.item.ChiselRateLimiter;
+
+/**
+ * Lists how much in-world chiseling each online player is doing, for operators keeping an eye on server load.
+ */
+@ParametersAreNonnullByDefault
+public class CommandChiselStats extends CommandBase {
+
+    @Override
+    public String getName() {
+        return "chiselstats";
+    }
+
+    @Override
+    public String getUsage(ICommandSender sender) {
+        return "commands.chisel.stats.usage";
+    }
+
+    @Override
+    public int getRequiredPermissionLevel() {
+        return 2;
+    }
+
+    @Override
+    public void execute(MinecraftServer server, ICommandSender sender, String[] args) throws CommandException {
+        List<EntityPlayerMP> players = server.getPlayerList().getPlayers();
+        if (players.isEmpty()) {
+            sender.sendMessage(new TextComponentTranslation("commands.chisel.stats.none"));
+            return;
+        }
+        sender.sendMessage(new TextComponentTranslation("commands.chisel.stats.header", Configurations.chiselRateLimit, Configurations.chiselRateBurst));
+        for (EntityPlayerMP player : players) {
+            ChiselRateLimiter limiter = ChiselRateLimiter.get(player);
+            sender.sendMessage(new TextComponentTranslation("commands.chisel.stats.entry", player.getName(), limiter.getRate(), limiter.getTokens()));
+        }
+    }
+}
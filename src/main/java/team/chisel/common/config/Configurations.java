@@ -31,6 +31,7 @@ public class Configurations {
     public static boolean oldPillars;
     public static boolean blockDescriptions;
     public static boolean imTooGoodForDescriptions;
+    public static int chiselParticleBudget;
 
     public static boolean allowChiselDamage;
     public static int ironChiselMaxDamage;
@@ -42,6 +43,15 @@ public class Configurations {
     public static int diamondChiselAttackDamage;
     public static int hitechChiselAttackDamage;
     public static boolean allowChiselCrossColors;
+    public static int contiguousChiselRange;
+    public static int chiselBlocksPerTick;
+    public static int chiselBoxMaxSize;
+    public static int chiselLineLength;
+    public static int chiselPlaneRadius;
+    public static int chiselUndoHistory;
+    public static int chiselUndoMaxBlocks;
+    public static int chiselRateLimit;
+    public static int chiselRateBurst;
 
     public static boolean useRoadLineTool;
     public static String getRoadLineTool;
@@ -82,6 +92,8 @@ public class Configurations {
         oldPillars = config.get(category, "pillarOldGraphics", false, "Use old pillar textures").getBoolean(false);
         blockDescriptions = config.get(category, "tooltipsUseBlockDescriptions", true, "Make variations of blocks have the same name, and use the description in tooltip to distinguish them.")
                 .getBoolean(true);
+        chiselParticleBudget = config.getInt("chiselParticleBudget", category, 512, 0, 16384,
+                "The max number of particles spawned each frame for each kind of effect (block hits, broken and chiseled blocks, and auto chisels). Also scaled down by the particle video setting and at low frame rates. When chiseling many blocks at once, they are spread evenly over the blocks.");
 
         /* chisel */
         category = "chisel";
@@ -101,6 +113,20 @@ public class Configurations {
         hitechChiselAttackDamage = config
                 .get(category, "hitechChiselAttackDamage", 3, "The extra attack damage points (in half hearts) that the iChisel inflicts when it is used to attack an entity.").getInt();
 
+        contiguousChiselRange = config.getInt("contiguousRange", category, 10, 1, 64, "How far, in blocks, the contiguous chisel modes extend from the clicked block.");
+        chiselBlocksPerTick = config.getInt("blocksPerTick", category, 128, 1, 4096,
+                "The max number of blocks a chisel will convert per tick. Larger selections are spread out over multiple ticks.");
+        chiselBoxMaxSize = config.getInt("boxMaxSize", category, 32, 1, 64, "The max length, in blocks, of each edge of a box selection.");
+        chiselLineLength = config.getInt("lineLength", category, 16, 1, 64, "The length, in blocks, of a line selection.");
+        chiselPlaneRadius = config.getInt("planeRadius", category, 3, 1, 32, "How far, in blocks, a plane selection extends from the clicked block. A radius of 3 gives a 7x7 plane.");
+        chiselUndoHistory = config.getInt("undoHistory", category, 16, 0, 256, "How many in-world chisel operations each player can undo. Use 0 to disable undo.");
+        chiselUndoMaxBlocks = config.getInt("undoMaxBlocks", category, 262144, 0, Integer.MAX_VALUE,
+                "The max number of blocks kept in each player's undo history. Each block costs roughly 10 bytes.");
+        chiselRateLimit = config.getInt("rateLimit", category, 128, 0, 65536,
+                "The number of blocks per tick each player earns towards chiseling on the server. Use 0 for no limit.");
+        chiselRateBurst = config.getInt("rateBurst", category, 1024, 1, Integer.MAX_VALUE,
+                "The max number of blocks a player can save up towards chiseling. Up to this many can be chiseled at once after a pause, before the rate limit applies.");
+
         /* block */
         category = "block";
 //        useRoadLineTool = config.get(category, "useRoadLineTool", false, "Should the road line require a tool to break (If false, road lines can be broken in Adventure)").getBoolean();
@@ -0,0 +1,98 @@
+package team.chisel.common.item;
+
+import javax.annotation.Nullable;
+import javax.annotation.ParametersAreNonnullByDefault;
+
+import com.google.common.collect.AbstractIterator;
+
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.BlockPos.MutableBlockPos;
+import net.minecraft.world.IBlockAccess;
+
+/**
+ * Iterates over the blocks in a box, optionally only those with a given state. The box is walked one 16x16x16 chunk section at a time, chunk by chunk, so that large boxes are never materialized and
+ * consecutive lookups stay within the same section.
+ */
+@ParametersAreNonnullByDefault
+public class BoxIterator extends AbstractIterator<BlockPos> {
+
+    private final IBlockAccess world;
+    private final @Nullable IBlockState state;
+
+    private final int minX, minY, minZ, maxX, maxY, maxZ;
+
+    /** The current section. */
+    private int cx, cy, cz;
+    /** The current section, clipped to the box. */
+    private int x0, x1, y0, y1, z0, z1;
+    /** The next position to check. */
+    private int x, y, z;
+
+    private final MutableBlockPos cursor = new MutableBlockPos();
+
+    /**
+     * @param from
+     *            One corner of the box, inclusive.
+     * @param to
+     *            The opposite corner of the box, inclusive.
+     * @param state
+     *            If non-null, only blocks with this exact state are returned.
+     */
+    public BoxIterator(IBlockAccess world, BlockPos from, BlockPos to, @Nullable IBlockState state) {
+        this.world = world;
+        this.state = state;
+        this.minX = Math.min(from.getX(), to.getX());
+        this.minY = Math.max(0, Math.min(from.getY(), to.getY()));
+        this.minZ = Math.min(from.getZ(), to.getZ());
+        this.maxX = Math.max(from.getX(), to.getX());
+        this.maxY = Math.min(255, Math.max(from.getY(), to.getY()));
+        this.maxZ = Math.max(from.getZ(), to.getZ());
+        this.cx = minX >> 4;
+        this.cy = minY >> 4;
+        this.cz = minZ >> 4;
+        clip();
+    }
+
+    @Override
+    protected BlockPos computeNext() {
+        while (cx <= maxX >> 4 && minY <= maxY) {
+            while (y <= y1) {
+                while (z <= z1) {
+                    while (x <= x1) {
+                        cursor.setPos(x++, y, z);
+                        if (state == null || world.getBlockState(cursor) == state) {
+                            return cursor.toImmutable();
+                        }
+                    }
+                    x = x0;
+                    z++;
+                }
+                z = z0;
+                y++;
+            }
+            nextSection();
+        }
+        return endOfData();
+    }
+
+    private void nextSection() {
+        if (++cy > maxY >> 4) {
+            cy = minY >> 4;
+            if (++cz > maxZ >> 4) {
+                cz = minZ >> 4;
+                cx++;
+            }
+        }
+        clip();
+    }
+
+    private void clip() {
+        x = x0 = Math.max(minX, cx << 4);
+        y = y0 = Math.max(minY, cy << 4);
+        z = z0 = Math.max(minZ, cz << 4);
+        x1 = Math.min(maxX, (cx << 4) + 15);
+        y1 = Math.min(maxY, (cy << 4) + 15);
+        z1 = Math.min(maxZ, (cz << 4) + 15);
+    }
+}
@@ -1,21 +1,27 @@
 package team.chisel.common.item;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
 import java.util.stream.Collectors;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import javax.annotation.ParametersAreNonnullByDefault;
 
 import org.lwjgl.opengl.GL11;
 
 import com.google.common.base.Preconditions;
 
+import lombok.RequiredArgsConstructor;
 import net.minecraft.block.state.IBlockState;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.renderer.GlStateManager;
 import net.minecraft.client.renderer.GlStateManager.DestFactor;
 import net.minecraft.client.renderer.GlStateManager.SourceFactor;
-import net.minecraft.client.renderer.Tessellator;
 import net.minecraft.entity.item.EntityPainting;
 import net.minecraft.entity.item.EntityPainting.EnumArt;
 import net.minecraft.entity.player.EntityPlayer;
@@ -26,13 +32,17 @@ import net.minecraft.util.EnumHand;
 import net.minecraft.util.SoundCategory;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.RayTraceResult.Type;
+import net.minecraft.util.text.TextComponentTranslation;
 import net.minecraft.world.World;
 import net.minecraftforge.client.event.DrawBlockHighlightEvent;
 import net.minecraftforge.event.ForgeEventFactory;
 import net.minecraftforge.event.entity.player.AttackEntityEvent;
 import net.minecraftforge.event.entity.player.PlayerInteractEvent;
 import net.minecraftforge.event.world.BlockEvent;
+import net.minecraftforge.event.world.WorldEvent;
 import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import net.minecraftforge.fml.common.gameevent.TickEvent.Phase;
+import net.minecraftforge.fml.common.gameevent.TickEvent.PlayerTickEvent;
 import net.minecraftforge.fml.relauncher.Side;
 import net.minecraftforge.fml.relauncher.SideOnly;
 import team.chisel.Chisel;
@@ -44,6 +54,8 @@ import team.chisel.api.carving.ICarvingVariation;
 import team.chisel.api.carving.IChiselMode;
 import team.chisel.client.util.ChiselModeGeometryCache;
 import team.chisel.client.util.ClientUtil;
+import team.chisel.common.config.Configurations;
+import team.chisel.common.util.BlockChangeBatch;
 import team.chisel.common.util.NBTUtil;
 import team.chisel.common.util.SoundUtil;
 
@@ -58,6 +70,9 @@ public class ChiselController {
         
         if (held.getItem() instanceof IChiselItem) {
 
+            // A new click always cancels whatever the previous one left unfinished
+            cancelJob(player);
+
             ItemStack target = NBTUtil.getChiselTarget(held);
             IChiselItem chisel = (IChiselItem) held.getItem();
             
@@ -75,6 +90,9 @@ public class ChiselController {
             
             IChiselMode mode = NBTUtil.getChiselMode(held);
             Iterable<? extends BlockPos> candidates = mode.getCandidates(player, event.getPos(), event.getFace());
+            if (!mode.onChiselClick(player, held, event.getPos(), event.getFace())) {
+                return;
+            }
             
             if (!target.isEmpty()) {
                 ICarvingGroup sourceGroup = registry.getGroup(target);
@@ -83,7 +101,7 @@ public class ChiselController {
                     ICarvingVariation variation = registry.getVariation(target);
                     if (variation != null) {
                         if (variation.getBlockState() != null) {
-                            setAll(candidates, player, state, variation);
+                            setAll(candidates, player, event.getPos(), state, variation);
                         }
                     } else {
                         Chisel.logger.warn("Found itemstack {} in group {}, but it has no variation!", target, sourceGroup.getName());
@@ -100,52 +118,203 @@ public class ChiselController {
                 index = (index + variations.size()) % variations.size();
                 
                 ICarvingVariation next = variations.get(index);
-                setAll(candidates, player, state, next);
+                setAll(candidates, player, event.getPos(), state, next);
             }
         }
     }
 
-    private static void setAll(Iterable<? extends BlockPos> candidates, EntityPlayer player, IBlockState origState, ICarvingVariation v) {
-        for (BlockPos pos : candidates) {
-            setVariation(player, pos, origState, v);
+    private static void setAll(Iterable<? extends BlockPos> candidates, EntityPlayer player, BlockPos origin, IBlockState origState, ICarvingVariation v) {
+        ChiselPrediction prediction = ChiselPrediction.begin(player, origin, origState, v.getBlockState());
+        startJob(player, new ChiselJob(player.world, candidates.iterator(), origState, v, prediction));
+    }
+
+    /**
+     * Work done on behalf of a player which may be spread over multiple ticks.
+     */
+    interface Job {
+
+        /**
+         * Does the next tick's worth of work. Implementations must not keep a reference to the player.
+         * 
+         * @return True if the job is finished or can no longer continue.
+         */
+        boolean run(EntityPlayer player);
+
+        /**
+         * Called instead of {@link #run(EntityPlayer)} if the job is dropped before it finishes.
+         */
+        default void cancel(EntityPlayer player) {}
+    }
+
+    /**
+     * Cancels the player's running job, then runs the first tick of the given job, and keeps it running if it did not finish.
+     */
+    static void startJob(EntityPlayer player, Job job) {
+        cancelJob(player);
+        if (!job.run(player)) {
+            getJobs(player).put(player, job);
+        }
+    }
+
+    static void cancelJob(EntityPlayer player) {
+        Job job = getJobs(player).remove(player);
+        if (job != null) {
+            job.cancel(player);
+        }
+    }
+
+    /*
+     * Client and server each run their own copy of a job, and on the integrated server both run in the same JVM, so they are tracked separately. Jobs hold no reference to their player, so the maps
+     * do not keep logged out players alive.
+     */
+    private static final Map<EntityPlayer, Job> serverJobs = new WeakHashMap<>();
+    private static final Map<EntityPlayer, Job> clientJobs = new WeakHashMap<>();
+
+    private static Map<EntityPlayer, Job> getJobs(EntityPlayer player) {
+        return player.world.isRemote ? clientJobs : serverJobs;
+    }
+
+    @SubscribeEvent
+    public static void onPlayerTick(PlayerTickEvent event) {
+        if (event.phase == Phase.END) {
+            if (!event.player.world.isRemote) {
+                ChiselRateLimiter.get(event.player).tick();
+            }
+            Map<EntityPlayer, Job> jobs = getJobs(event.player);
+            Job job = jobs.get(event.player);
+            if (job != null && job.run(event.player)) {
+                jobs.remove(event.player);
+            }
         }
     }
+
     /**
-     * Assumes that the player is holding a chisel
+     * A selection being chiseled, which is converted at most {@link Configurations#chiselBlocksPerTick} blocks at a time, and no faster than the player's {@link ChiselRateLimiter} allows.
+     * Candidates are pulled lazily, so searching is spread across ticks and limited as well.
      */
-    private static void setVariation(EntityPlayer player, BlockPos pos, IBlockState origState, ICarvingVariation v) {
+    @RequiredArgsConstructor
+    private static class ChiselJob implements Job {
+
+        private final World world;
+        private final Iterator<? extends BlockPos> candidates;
+        private final IBlockState origState;
+        private final ICarvingVariation variation;
+        private final ChiselPrediction prediction;
+
+        private int ticks;
+        private int chiseled;
+        private boolean playedSound;
+        private @Nullable ChiselHistory.Entry history;
+
+        @Override
+        public boolean run(EntityPlayer player) {
+            boolean done = chisel(player);
+            if (done) {
+                prediction.finish(player);
+            }
+            return done;
+        }
+
+        @Override
+        public void cancel(EntityPlayer player) {
+            prediction.finish(player);
+        }
+
+        private boolean chisel(EntityPlayer player) {
+            ItemStack held = player.getHeldItemMainhand();
+            if (player.world != world || player.isDead || !(held.getItem() instanceof IChiselItem) || prediction.isReconciled()) {
+                return true;
+            }
+            ChiselRateLimiter limiter = ChiselRateLimiter.get(player);
+            int limit = limiter.take(Configurations.chiselBlocksPerTick);
+            if (limit == 0) {
+                return false;
+            }
+            // The player predicted this job on their own client, so only other players are sent the changes
+            BlockChangeBatch batch = new BlockChangeBatch(world, player);
+            List<BlockPos> slice = new ArrayList<>();
+            while (slice.size() < limit && candidates.hasNext()) {
+                slice.add(candidates.next());
+            }
+            limiter.refund(limit - slice.size());
+            int damage = held.getItemDamage();
+            List<BlockPos> changed = setVariations(player, slice, origState, variation, batch);
+            batch.apply();
+            prediction.record(changed);
+            limiter.converted(changed.size());
+            chiseled += changed.size();
+            if (!world.isRemote && !changed.isEmpty()) {
+                ChiselHistory journal = ChiselHistory.get(player);
+                if (history == null) {
+                    history = journal.begin(world);
+                }
+                journal.record(history, changed, origState, variation.getBlockState());
+                history.charge(held, damage);
+            }
+            if (world.isRemote && !changed.isEmpty()) {
+                // One sound for the whole job, and particles from the shared budget, no matter how many blocks are chiseled
+                if (!playedSound) {
+                    SoundUtil.playSound(player, held, variation.getBlockState());
+                    playedSound = true;
+                }
+                ClientUtil.addDestroyEffects(world, changed, origState);
+            }
+            boolean done = !candidates.hasNext();
+            // Only report on jobs that did not finish in a single tick
+            if (++ticks > 1 && !world.isRemote) {
+                player.sendStatusMessage(new TextComponentTranslation(done ? "chisel.job.done" : "chisel.job.progress", chiseled), true);
+            }
+            return done;
+        }
+    }
+
+    /**
+     * Chisels as many of the given positions as the held chisel can afford, paying for all of them at once. Positions which no longer hold {@code origState} are skipped. The new states are queued in
+     * the given batch rather than written immediately.
+     * 
+     * @return The positions which were chiseled.
+     */
+    static List<BlockPos> setVariations(EntityPlayer player, List<BlockPos> positions, IBlockState origState, ICarvingVariation v, BlockChangeBatch batch) {
         IBlockState targetState = v.getBlockState();
         Preconditions.checkNotNull(targetState, "Variation state cannot be null!");
-        
+
         World world = player.world;
-        IBlockState curState = world.getBlockState(pos);
         ItemStack held = player.getHeldItemMainhand();
-        if (curState == v.getBlockState()) {
-            return; // don't chisel to the same thing
-        }
-        if (origState != curState) {
-            return; // don't chisel if this doesn't match the target block (for the AOE modes)
+        if (origState == targetState || !(held.getItem() instanceof IChiselItem)) {
+            return Collections.emptyList(); // don't chisel to the same thing
         }
 
-        if (held.getItem() instanceof IChiselItem) {
-//            player.addStat(Statistics.blocksChiseled, 1); // TODO statistics
-            IChiselItem chisel = ((IChiselItem)held.getItem());
-            ItemStack current = CarvingUtils.getChiselRegistry().getVariation(curState).getStack();
-            current.setCount(1);
-            ItemStack target = v.getStack();
-            target.setCount(1);
-            chisel.craftItem(held, current, target, player);
-            chisel.onChisel(player.world, player, held, v);
-            if (held.getCount() <= 0) {
-                ItemStack targetStack = NBTUtil.getChiselTarget(held);
-                player.inventory.mainInventory.set(player.inventory.currentItem, targetStack);
-            }
-            if (world.isRemote) {
-                SoundUtil.playSound(player, held, targetState);
-                ClientUtil.addDestroyEffects(world, pos, curState);
+        // don't chisel anything that doesn't match the target block (for the AOE modes)
+        List<BlockPos> valid = new ArrayList<>(positions.size());
+        for (BlockPos pos : positions) {
+            if (world.getBlockState(pos) == origState) {
+                valid.add(pos);
             }
-            world.setBlockState(pos, targetState);
         }
+        if (valid.isEmpty()) {
+            return valid;
+        }
+
+//        player.addStat(Statistics.blocksChiseled, 1); // TODO statistics
+        IChiselItem chisel = ((IChiselItem) held.getItem());
+        ItemStack current = CarvingUtils.getChiselRegistry().getVariation(origState).getStack();
+        current.setCount(1);
+        ItemStack target = v.getStack();
+        target.setCount(1);
+        int count = chisel.craftItems(held, current, target, valid.size(), player);
+        if (count > 0) {
+            chisel.onChisel(world, player, held, v);
+        }
+        if (held.getCount() <= 0) {
+            ItemStack targetStack = NBTUtil.getChiselTarget(held);
+            player.inventory.mainInventory.set(player.inventory.currentItem, targetStack);
+        }
+
+        List<BlockPos> chiseled = valid.subList(0, count);
+        for (BlockPos pos : chiseled) {
+            batch.setBlockState(pos, targetState);
+        }
+        return chiseled;
     }
     
     @SideOnly(Side.CLIENT)
@@ -171,6 +340,7 @@ public class ChiselController {
                 cache.setMode(mode);
                 cache.setOrigin(event.getTarget().getBlockPos());
                 cache.setSide(event.getTarget().sideHit);
+                cache.refresh();
             }
             
             // Don't bother rendering fancy for a single block
@@ -190,20 +360,16 @@ public class ChiselController {
             GlStateManager.enableAlpha();
             GlStateManager.alphaFunc(GL11.GL_GREATER, 0);
 
-            Tessellator.getInstance().getBuffer().setTranslation(-px, -py, -pz);
-
             GlStateManager.doPolygonOffset(-4, -4);
             GlStateManager.enablePolygonOffset();
             GlStateManager.disableBlend();
             GlStateManager.colorMask(false, false, false, false);
-            cache.draw();
+            cache.draw(px, py, pz);
             GlStateManager.enableBlend();
             GlStateManager.colorMask(true, true, true, true);
-            cache.draw();
+            cache.draw(px, py, pz);
             GlStateManager.doPolygonOffset(0, 0);
             GlStateManager.disablePolygonOffset();
-            
-            Tessellator.getInstance().getBuffer().setTranslation(0, 0, 0);
 
             GlStateManager.enableTexture2D();
             GlStateManager.enableDepth();
@@ -211,6 +377,16 @@ public class ChiselController {
         }
     }
     
+    @SubscribeEvent
+    @SideOnly(Side.CLIENT)
+    public static void onClientWorldUnload(WorldEvent.Unload event) {
+        if (event.getWorld().isRemote && cache != null) {
+            cache.delete();
+            event.getWorld().removeEventListener(cache);
+            cache = null;
+        }
+    }
+    
 //    private static final ITextureType CTM_TYPE = TextureTypeRegistry.getType("CTM");
 
     @SubscribeEvent
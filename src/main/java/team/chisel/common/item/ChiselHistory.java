@@ -0,0 +1,302 @@
+package team.chisel.common.item;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import javax.annotation.Nullable;
+import javax.annotation.ParametersAreNonnullByDefault;
+
+import com.google.common.base.Preconditions;
+
+import gnu.trove.list.TIntList;
+import gnu.trove.list.TLongList;
+import gnu.trove.list.TShortList;
+import gnu.trove.list.array.TIntArrayList;
+import gnu.trove.list.array.TLongArrayList;
+import gnu.trove.list.array.TShortArrayList;
+import net.minecraft.block.Block;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.item.ItemStack;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.text.TextComponentTranslation;
+import net.minecraft.world.World;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import net.minecraftforge.fml.common.gameevent.PlayerEvent.PlayerLoggedOutEvent;
+import team.chisel.api.IChiselItem;
+import team.chisel.api.carving.CarvingUtils;
+import team.chisel.api.carving.ICarvingVariation;
+import team.chisel.common.config.Configurations;
+import team.chisel.common.util.BlockChangeBatch;
+
+/**
+ * Server-side undo/redo history of a player's in-world chisel operations.
+ * <p>
+ * Each entry stores its positions as packed longs, and its before and after states as indices into a small palette of state IDs. Histories are bounded by
+ * {@link Configurations#chiselUndoHistory} entries and {@link Configurations#chiselUndoMaxBlocks} blocks, oldest entries being dropped first, and are forgotten when the player logs out.
+ */
+@ParametersAreNonnullByDefault
+public class ChiselHistory {
+
+    private static final Map<UUID, ChiselHistory> histories = new HashMap<>();
+
+    private final Deque<Entry> undo = new ArrayDeque<>();
+    private final Deque<Entry> redo = new ArrayDeque<>();
+    private int blocks;
+
+    public static ChiselHistory get(EntityPlayer player) {
+        return histories.computeIfAbsent(player.getUniqueID(), id -> new ChiselHistory());
+    }
+
+    @SubscribeEvent
+    public static void onLogout(PlayerLoggedOutEvent event) {
+        histories.remove(event.player.getUniqueID());
+    }
+
+    /**
+     * Starts a new entry. Anything that could be redone is forgotten.
+     */
+    Entry begin(World world) {
+        for (Entry e : redo) {
+            blocks -= e.size();
+        }
+        redo.clear();
+        Entry entry = new Entry(world.provider.getDimension());
+        undo.push(entry);
+        while (undo.size() > Configurations.chiselUndoHistory) {
+            Entry oldest = undo.removeLast();
+            blocks -= oldest.size();
+            oldest.discarded = true;
+        }
+        return entry;
+    }
+
+    void record(Entry entry, Collection<BlockPos> positions, IBlockState before, IBlockState after) {
+        if (entry.discarded) {
+            return;
+        }
+        for (BlockPos pos : positions) {
+            entry.add(pos.toLong(), before, after);
+        }
+        blocks += positions.size();
+        while (blocks > Configurations.chiselUndoMaxBlocks && !undo.isEmpty()) {
+            Entry oldest = undo.removeLast();
+            blocks -= oldest.size();
+            // An operation too big to fit at all is not recorded
+            oldest.discarded = true;
+        }
+    }
+
+    public void undo(EntityPlayer player) {
+        replay(player, undo, redo, false);
+    }
+
+    public void redo(EntityPlayer player) {
+        replay(player, redo, undo, true);
+    }
+
+    private void replay(EntityPlayer player, Deque<Entry> from, Deque<Entry> to, boolean redo) {
+        Entry entry = from.peek();
+        if (entry == null || entry.dimension != player.world.provider.getDimension()) {
+            player.sendStatusMessage(new TextComponentTranslation(redo ? "chisel.history.redo.empty" : "chisel.history.undo.empty"), true);
+            return;
+        }
+        from.pop();
+        to.push(entry);
+        ChiselController.startJob(player, new Replay(player.world, entry, redo));
+    }
+
+    static class Entry {
+
+        private final int dimension;
+        private final TIntList palette = new TIntArrayList(2);
+        private final TLongList positions = new TLongArrayList();
+        /** Palette indices, before in the high byte, after in the low byte. */
+        private final TShortList states = new TShortArrayList();
+        private boolean discarded;
+
+        /* The durability paid for this entry, and the chisel that paid it. Null if nothing can be refunded, such as when more than one chisel paid or the chisel broke. */
+        private @Nullable WeakReference<ItemStack> payer;
+        private int charged;
+        private boolean refundable = true;
+
+        private Entry(int dimension) {
+            this.dimension = dimension;
+        }
+
+        /**
+         * Notes the durability the given chisel paid, given its damage from before it paid.
+         */
+        void charge(ItemStack chisel, int damageBefore) {
+            if (chisel.isEmpty()) {
+                // Broken, so there is nothing to refund to
+                refundable = false;
+                payer = null;
+                return;
+            }
+            int paid = chisel.getItemDamage() - damageBefore;
+            if (paid <= 0 || !refundable) {
+                return;
+            }
+            if (payer == null) {
+                payer = new WeakReference<>(chisel);
+            } else if (payer.get() != chisel) {
+                refundable = false;
+                payer = null;
+                return;
+            }
+            charged += paid;
+        }
+
+        private void resetCharge() {
+            payer = null;
+            charged = 0;
+            refundable = true;
+        }
+
+        /**
+         * @return True if the given chisel alone paid for this entry.
+         */
+        private boolean isPayer(ItemStack chisel) {
+            return refundable && payer != null && payer.get() == chisel;
+        }
+
+        private void add(long pos, IBlockState before, IBlockState after) {
+            positions.add(pos);
+            states.add((short) (paletteIndex(before) << 8 | paletteIndex(after)));
+        }
+
+        private int paletteIndex(IBlockState state) {
+            int id = Block.getStateId(state);
+            int idx = palette.indexOf(id);
+            if (idx < 0) {
+                Preconditions.checkState(palette.size() < 256, "Too many distinct states in one chisel operation");
+                idx = palette.size();
+                palette.add(id);
+            }
+            return idx;
+        }
+
+        int size() {
+            return positions.size();
+        }
+
+        BlockPos getPos(int i) {
+            return BlockPos.fromLong(positions.get(i));
+        }
+
+        short getTransition(int i) {
+            return states.get(i);
+        }
+
+        IBlockState getBefore(int i) {
+            return beforeOf(states.get(i));
+        }
+
+        IBlockState getAfter(int i) {
+            return afterOf(states.get(i));
+        }
+
+        IBlockState beforeOf(short transition) {
+            return Block.getStateById(palette.get(transition >> 8 & 0xFF));
+        }
+
+        IBlockState afterOf(short transition) {
+            return Block.getStateById(palette.get(transition & 0xFF));
+        }
+    }
+
+    /**
+     * Undoes or redoes an entry, at most {@link Configurations#chiselBlocksPerTick} blocks at a time and within the player's {@link ChiselRateLimiter}. Only blocks which are still in the state the entry left them in are touched.
+     * <p>
+     * Undoing refunds the durability the entry actually cost, in proportion to the blocks restored, but only if the chisel that paid it is the one held. Redoing chisels each block again, and so
+     * costs durability as normal, which is then what a later undo refunds.
+     */
+    private static class Replay implements ChiselController.Job {
+
+        private final World world;
+        private final Entry entry;
+        private final boolean redo;
+
+        private int next;
+        private int count;
+        private int restoredTotal;
+        private int refunded;
+
+        Replay(World world, Entry entry, boolean redo) {
+            this.world = world;
+            this.entry = entry;
+            this.redo = redo;
+            if (redo) {
+                entry.resetCharge();
+            }
+        }
+
+        @Override
+        public boolean run(EntityPlayer player) {
+            ItemStack held = player.getHeldItemMainhand();
+            if (player.world != world || player.isDead || !(held.getItem() instanceof IChiselItem)) {
+                return true;
+            }
+            ChiselRateLimiter limiter = ChiselRateLimiter.get(player);
+            int limit = limiter.take(Configurations.chiselBlocksPerTick);
+            if (limit == 0) {
+                return false;
+            }
+            BlockChangeBatch batch = new BlockChangeBatch(world);
+            int restored = 0;
+            int start = next;
+            int before = count;
+            // Redone blocks are grouped by transition so each group can be paid for at once
+            Map<Short, List<BlockPos>> toRedo = new LinkedHashMap<>();
+            int end = Math.min(entry.size(), next + limit);
+            for (; next < end; next++) {
+                BlockPos pos = entry.getPos(next);
+                IBlockState from = redo ? entry.getBefore(next) : entry.getAfter(next);
+                if (!world.isBlockLoaded(pos) || world.getBlockState(pos) != from) {
+                    continue;
+                }
+                if (redo) {
+                    toRedo.computeIfAbsent(entry.getTransition(next), t -> new ArrayList<>()).add(pos);
+                } else {
+                    batch.setBlockState(pos, entry.getBefore(next));
+                    restored++;
+                }
+            }
+            for (Map.Entry<Short, List<BlockPos>> group : toRedo.entrySet()) {
+                short transition = group.getKey();
+                ICarvingVariation variation = CarvingUtils.getChiselRegistry().getVariation(entry.afterOf(transition));
+                if (variation != null && variation.getBlockState() != null) {
+                    int damage = held.getItemDamage();
+                    count += ChiselController.setVariations(player, group.getValue(), entry.beforeOf(transition), variation, batch).size();
+                    entry.charge(held, damage);
+                }
+            }
+            limiter.refund(limit - (end - start));
+            batch.apply();
+            if (restored > 0) {
+                count += restored;
+                restoredTotal += restored;
+                if (entry.isPayer(held)) {
+                    int refund = (int) ((long) entry.charged * restoredTotal / entry.size()) - refunded;
+                    held.setItemDamage(Math.max(0, held.getItemDamage() - refund));
+                    refunded += refund;
+                }
+            }
+            limiter.converted(count - before);
+            boolean done = next >= entry.size();
+            if (done) {
+                player.sendStatusMessage(new TextComponentTranslation(redo ? "chisel.history.redo" : "chisel.history.undo", count), true);
+            }
+            return done;
+        }
+    }
+}
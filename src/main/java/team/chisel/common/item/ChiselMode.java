@@ -1,11 +1,9 @@
 package team.chisel.common.item;
 
-import java.util.ArrayDeque;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.LinkedHashSet;
-import java.util.Queue;
 import java.util.Set;
 
 import javax.vecmath.Point2i;
@@ -14,19 +12,22 @@ import org.apache.commons.lang3.ArrayUtils;
 
 import com.google.common.collect.Sets;
 
-import lombok.Value;
 import net.minecraft.block.state.IBlockState;
 import net.minecraft.client.Minecraft;
 import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.item.ItemStack;
 import net.minecraft.util.EnumFacing;
 import net.minecraft.util.EnumFacing.AxisDirection;
 import net.minecraft.util.math.AxisAlignedBB;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.MathHelper;
 import net.minecraft.util.math.Vec3i;
-import net.minecraft.world.World;
+import net.minecraft.util.text.TextComponentTranslation;
+import net.minecraft.world.IBlockAccess;
 import team.chisel.api.carving.CarvingUtils;
 import team.chisel.api.carving.IChiselMode;
+import team.chisel.common.config.Configurations;
+import team.chisel.common.util.NBTUtil;
 
 @SuppressWarnings("null")
 public enum ChiselMode implements IChiselMode {
@@ -34,7 +35,7 @@ public enum ChiselMode implements IChiselMode {
     SINGLE {
 
         @Override
-        public Iterable<BlockPos> getCandidates(EntityPlayer player, BlockPos pos, EnumFacing side) {
+        public Iterable<BlockPos> getCandidates(EntityPlayer player, IBlockAccess world, ItemStack chisel, EnumFacing facing, BlockPos pos, EnumFacing side) {
             return Collections.singleton(pos);
         }
         
@@ -49,12 +50,12 @@ public enum ChiselMode implements IChiselMode {
         private final BlockPos NEG_ONE = new BlockPos(-1, -1, -1);
 
         @Override
-        public Iterable<BlockPos> getCandidates(EntityPlayer player, BlockPos pos, EnumFacing side) {
+        public Iterable<BlockPos> getCandidates(EntityPlayer player, IBlockAccess world, ItemStack chisel, EnumFacing facing, BlockPos pos, EnumFacing side) {
             if (side.getAxisDirection() == AxisDirection.NEGATIVE) {
                 side = side.getOpposite();
             }
             Vec3i offset = side.getDirectionVec();
-            return filteredIterable(Sets.newHashSet(BlockPos.getAllInBox(NEG_ONE.add(offset).add(pos), ONE.subtract(offset).add(pos))), player.world, player.world.getBlockState(pos));
+            return filteredIterable(Sets.newHashSet(BlockPos.getAllInBox(NEG_ONE.add(offset).add(pos), ONE.subtract(offset).add(pos))), world, world.getBlockState(pos));
         }
         
         @Override
@@ -73,21 +74,21 @@ public enum ChiselMode implements IChiselMode {
     COLUMN {
 
         @Override
-        public Iterable<BlockPos> getCandidates(EntityPlayer player, BlockPos pos, EnumFacing side) {
-            int facing = MathHelper.floor(player.rotationYaw * 4.0F / 360.0F + 0.5D) & 3;
+        public Iterable<BlockPos> getCandidates(EntityPlayer player, IBlockAccess world, ItemStack chisel, EnumFacing facing, BlockPos pos, EnumFacing side) {
+            int horizontal = facing.getHorizontalIndex();
             Set<BlockPos> ret = new LinkedHashSet<>();
             for (int i = -1; i <= 1; i++) {
                 if (side != EnumFacing.DOWN && side != EnumFacing.UP) {
                     ret.add(pos.up(i));
                 } else {
-                    if (facing == 0 || facing == 2) {
+                    if (horizontal == 0 || horizontal == 2) {
                         ret.add(pos.south(i));
                     } else {
                         ret.add(pos.east(i));
                     }
                 }
             }
-            return filteredIterable(ret, player.world, player.world.getBlockState(pos));
+            return filteredIterable(ret, world, world.getBlockState(pos));
         }
         
         @Override
@@ -103,8 +104,8 @@ public enum ChiselMode implements IChiselMode {
     ROW {
 
         @Override
-        public Iterable<BlockPos> getCandidates(EntityPlayer player, BlockPos pos, EnumFacing side) {
-            int facing = MathHelper.floor(player.rotationYaw * 4.0F / 360.0F + 0.5D) & 3;
+        public Iterable<BlockPos> getCandidates(EntityPlayer player, IBlockAccess world, ItemStack chisel, EnumFacing facing, BlockPos pos, EnumFacing side) {
+            int horizontal = facing.getHorizontalIndex();
             Set<BlockPos> ret = new LinkedHashSet<>();
             for (int i = -1; i <= 1; i++) {
                 if (side != EnumFacing.DOWN && side != EnumFacing.UP) {
@@ -114,14 +115,14 @@ public enum ChiselMode implements IChiselMode {
                         ret.add(pos.east(i));
                     }
                 } else {
-                    if (facing == 0 || facing == 2) {
+                    if (horizontal == 0 || horizontal == 2) {
                         ret.add(pos.east(i));
                     } else {
                         ret.add(pos.south(i));
                     }
                 }
             }
-            return filteredIterable(ret, player.world, player.world.getBlockState(pos));
+            return filteredIterable(ret, world, world.getBlockState(pos));
         }
         
         @Override
@@ -138,13 +139,13 @@ public enum ChiselMode implements IChiselMode {
 
         
         @Override
-        public Iterable<? extends BlockPos> getCandidates(EntityPlayer player, BlockPos pos, EnumFacing side) {
-            return () -> getContiguousIterator(pos, player.world, EnumFacing.VALUES);
+        public Iterable<? extends BlockPos> getCandidates(EntityPlayer player, IBlockAccess world, ItemStack chisel, EnumFacing facing, BlockPos pos, EnumFacing side) {
+            return () -> getContiguousIterator(pos, world, EnumFacing.VALUES);
         }
         
         @Override
         public AxisAlignedBB getBounds(EnumFacing side) {
-            int r = CONTIGUOUS_RANGE;
+            int r = getContiguousRange();
             return new AxisAlignedBB(-r - 1, -r - 1, -r - 1, r + 2, r + 2, r + 2);
         }
     },
@@ -152,13 +153,13 @@ public enum ChiselMode implements IChiselMode {
         
         
         @Override
-        public Iterable<? extends BlockPos> getCandidates(EntityPlayer player, BlockPos pos, EnumFacing side) {
-            return () -> getContiguousIterator(pos, player.world, ArrayUtils.removeElements(EnumFacing.VALUES, side, side.getOpposite()));
+        public Iterable<? extends BlockPos> getCandidates(EntityPlayer player, IBlockAccess world, ItemStack chisel, EnumFacing facing, BlockPos pos, EnumFacing side) {
+            return () -> getContiguousIterator(pos, world, ArrayUtils.removeElements(EnumFacing.VALUES, side, side.getOpposite()));
         }
         
         @Override
         public AxisAlignedBB getBounds(EnumFacing side) {
-            int r = CONTIGUOUS_RANGE;
+            int r = getContiguousRange();
             switch (side.getAxis()) {
             case X:
             default:
@@ -169,55 +170,133 @@ public enum ChiselMode implements IChiselMode {
                 return new AxisAlignedBB(-r - 1, -r - 1, 0, r + 2, r + 2, 1);
             }
         }
-    };
-    
-    
-    @Value
-    private static class Node {
-        private BlockPos pos;
-        int distance;
-    }
-    
-    public static final int CONTIGUOUS_RANGE = 10;
-    
-    private static Iterator<BlockPos> getContiguousIterator(BlockPos origin, World world, EnumFacing[] directionsToSearch) {
-        final IBlockState state = world.getBlockState(origin);
-        return new Iterator<BlockPos>() {
-
-            private Set<BlockPos> seen = Sets.newHashSet(origin);
-            private Queue<Node> search = new ArrayDeque<>();
-            { search.add(new Node(origin, 0)); }
+    },
+    BOX {
 
-            @Override
-            public boolean hasNext() {
-                return !search.isEmpty();
+        @Override
+        public Iterable<? extends BlockPos> getCandidates(EntityPlayer player, IBlockAccess world, ItemStack chisel, EnumFacing facing, BlockPos pos, EnumFacing side) {
+            BlockPos anchor = NBTUtil.getBoxAnchor(chisel);
+            if (anchor == null) {
+                return filteredIterable(Collections.singleton(pos), world, world.getBlockState(pos));
             }
+            return boxIterable(world, anchor, clampToBox(anchor, pos), world.getBlockState(pos));
+        }
 
-            @Override
-            public BlockPos next() {
-                Node ret = search.poll();
-                if (ret.getDistance() < CONTIGUOUS_RANGE) {
-                    for (EnumFacing face : directionsToSearch) {
-                        BlockPos bp = ret.getPos().offset(face);
-                        if (!seen.contains(bp) && world.getBlockState(bp) == state) {
-                            for (EnumFacing obscureCheck : EnumFacing.VALUES) {
-                                BlockPos obscuringPos = bp.offset(obscureCheck);
-                                IBlockState obscuringState = world.getBlockState(obscuringPos);
-                                if (!obscuringState.isSideSolid(world, obscuringPos, obscureCheck.getOpposite())) {
-                                    search.offer(new Node(bp, ret.getDistance() + 1));
-                                    break;
-                                }
-                            }
-                        }
-                        seen.add(bp);
-                    }
+        @Override
+        public boolean onChiselClick(EntityPlayer player, ItemStack chisel, BlockPos pos, EnumFacing side) {
+            if (NBTUtil.getBoxAnchor(chisel) == null) {
+                NBTUtil.setBoxAnchor(chisel, pos);
+                if (!player.world.isRemote) {
+                    player.sendStatusMessage(new TextComponentTranslation("chisel.mode.box.anchor", pos.getX(), pos.getY(), pos.getZ()), true);
                 }
-                return ret.getPos();
+                return false;
+            }
+            NBTUtil.setBoxAnchor(chisel, null);
+            return true;
+        }
+
+        @Override
+        public AxisAlignedBB getBounds(EnumFacing side) {
+            // Without the anchor, all we know is how far away it could be
+            int r = Configurations.chiselBoxMaxSize - 1;
+            return new AxisAlignedBB(-r, -r, -r, r + 1, r + 1, r + 1);
+        }
+
+        @Override
+        public AxisAlignedBB getBounds(EntityPlayer player, BlockPos origin, EnumFacing side) {
+            BlockPos anchor = NBTUtil.getBoxAnchor(player.getHeldItemMainhand());
+            if (anchor == null) {
+                return new AxisAlignedBB(origin);
             }
-        };
+            return new AxisAlignedBB(anchor).union(new AxisAlignedBB(clampToBox(anchor, origin)));
+        }
+
+        @Override
+        public long[] getCacheState(BlockPos origin, EnumFacing side) {
+            BlockPos anchor = NBTUtil.getBoxAnchor(Minecraft.getMinecraft().player.getHeldItemMainhand());
+            return ArrayUtils.add(super.getCacheState(origin, side), anchor == null ? Long.MIN_VALUE : anchor.toLong());
+        }
+
+        private BlockPos clampToBox(BlockPos anchor, BlockPos pos) {
+            int r = Configurations.chiselBoxMaxSize - 1;
+            return new BlockPos(
+                    MathHelper.clamp(pos.getX(), anchor.getX() - r, anchor.getX() + r),
+                    MathHelper.clamp(pos.getY(), anchor.getY() - r, anchor.getY() + r),
+                    MathHelper.clamp(pos.getZ(), anchor.getZ() - r, anchor.getZ() + r));
+        }
+    },
+    LINE {
+
+        @Override
+        public Iterable<? extends BlockPos> getCandidates(EntityPlayer player, IBlockAccess world, ItemStack chisel, EnumFacing facing, BlockPos pos, EnumFacing side) {
+            return boxIterable(world, pos, pos.offset(side.getOpposite(), Configurations.chiselLineLength - 1), world.getBlockState(pos));
+        }
+
+        @Override
+        public AxisAlignedBB getBounds(EnumFacing side) {
+            return new AxisAlignedBB(BlockPos.ORIGIN).union(new AxisAlignedBB(BlockPos.ORIGIN.offset(side.getOpposite(), Configurations.chiselLineLength - 1)));
+        }
+    },
+    PLANE {
+
+        @Override
+        public Iterable<? extends BlockPos> getCandidates(EntityPlayer player, IBlockAccess world, ItemStack chisel, EnumFacing facing, BlockPos pos, EnumFacing side) {
+            Vec3i extent = getExtent(side);
+            return boxIterable(world, pos.subtract(extent), pos.add(extent), world.getBlockState(pos));
+        }
+
+        @Override
+        public AxisAlignedBB getBounds(EnumFacing side) {
+            Vec3i extent = getExtent(side);
+            return new AxisAlignedBB(-extent.getX(), -extent.getY(), -extent.getZ(), extent.getX() + 1, extent.getY() + 1, extent.getZ() + 1);
+        }
+
+        private Vec3i getExtent(EnumFacing side) {
+            int r = Configurations.chiselPlaneRadius;
+            switch (side.getAxis()) {
+            case X:
+            default:
+                return new Vec3i(0, r, r);
+            case Y:
+                return new Vec3i(r, 0, r);
+            case Z:
+                return new Vec3i(r, r, 0);
+            }
+        }
+    };
+
+    /** The contiguous range sent by the server, or 0 if there is none. */
+    private static volatile int serverContiguousRange;
+    
+    @Override
+    public Iterable<? extends BlockPos> getCandidates(EntityPlayer player, BlockPos pos, EnumFacing side) {
+        return getCandidates(player, player.world, player.getHeldItemMainhand(), player.getHorizontalFacing(), pos, side);
+    }
+
+    /**
+     * @return How far the contiguous modes extend. On a client connected to a server, this is the server's {@link Configurations#contiguousChiselRange}, so that predictions match what the server
+     *         chisels.
+     */
+    public static int getContiguousRange() {
+        return serverContiguousRange > 0 ? serverContiguousRange : Configurations.contiguousChiselRange;
+    }
+
+    /**
+     * Sets the range received from the server, or 0 to go back to the local config.
+     */
+    static void setServerContiguousRange(int range) {
+        serverContiguousRange = range;
+    }
+    
+    private static Iterator<BlockPos> getContiguousIterator(BlockPos origin, IBlockAccess world, EnumFacing[] directionsToSearch) {
+        return new ContiguousIterator(origin, world, directionsToSearch, getContiguousRange());
+    }
+    
+    private static Iterable<BlockPos> boxIterable(IBlockAccess world, BlockPos from, BlockPos to, IBlockState state) {
+        return () -> new BoxIterator(world, from, to, state);
     }
     
-    private static Iterable<BlockPos> filteredIterable(Collection<BlockPos> source, World world, IBlockState state) {
+    private static Iterable<BlockPos> filteredIterable(Collection<BlockPos> source, IBlockAccess world, IBlockState state) {
         return source.stream().filter(p -> world.getBlockState(p) == state)::iterator;
     }
     
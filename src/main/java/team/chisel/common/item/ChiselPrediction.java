@@ -0,0 +1,244 @@
+package team.chisel.common.item;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import javax.annotation.Nullable;
+import javax.annotation.ParametersAreNonnullByDefault;
+
+import gnu.trove.list.TLongList;
+import gnu.trove.list.array.TLongArrayList;
+import gnu.trove.map.TIntObjectMap;
+import gnu.trove.map.hash.TIntObjectHashMap;
+import gnu.trove.set.TLongSet;
+import gnu.trove.set.hash.TLongHashSet;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.entity.player.EntityPlayerMP;
+import net.minecraft.init.Blocks;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+import net.minecraftforge.event.world.WorldEvent;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import net.minecraftforge.fml.common.gameevent.PlayerEvent.PlayerLoggedOutEvent;
+import net.minecraftforge.fml.common.gameevent.TickEvent.Phase;
+import net.minecraftforge.fml.common.gameevent.TickEvent.PlayerTickEvent;
+import team.chisel.Chisel;
+import team.chisel.common.util.BlockChangeBatch;
+
+/**
+ * Client-side prediction of in-world chiseling, and its reconciliation with the server.
+ * <p>
+ * Both sides run their own job for each chisel click. The client numbers its copy and tells the server, which then leaves the clicking player out of the block updates for its own copy. Once the
+ * server's job is done, it sends the positions it actually changed back under that number, and the client fixes up only the positions where its prediction turned out wrong.
+ * <p>
+ * The click and its prediction can reach the server in either order: in creative the click is sent first, while in survival the client's event, and so the prediction, comes first. The server
+ * pairs each click with a prediction for the same position, whichever arrives first waiting up to {@link #TIMEOUT} ticks for the other. A server result which never gets a prediction is sent
+ * unnumbered, so the client still ends up with the right blocks, and a prediction which never gets a click is answered with an empty result, so the client rolls it back.
+ */
+@ParametersAreNonnullByDefault
+public class ChiselPrediction {
+
+    static final int UNMATCHED = -1;
+
+    /** How many ticks a finished server result waits for its prediction, or a prediction for its click. */
+    private static final int TIMEOUT = 20;
+
+    private static int nextSeq;
+    private static final TIntObjectMap<ChiselPrediction> predictions = new TIntObjectHashMap<>();
+    private static final Map<UUID, List<ChiselPrediction>> results = new HashMap<>();
+    /** Server side, predictions which arrived before their click. */
+    private static final Map<UUID, List<Claim>> claims = new HashMap<>();
+
+    private static class Claim {
+
+        private final int seq;
+        private final BlockPos origin;
+        private int age;
+
+        Claim(int seq, BlockPos origin) {
+            this.seq = seq;
+            this.origin = origin;
+        }
+    }
+
+    private int seq = UNMATCHED;
+    private final BlockPos origin;
+    private final IBlockState before;
+    private final IBlockState after;
+    /** On the client, the positions predicted so far. On the server, the positions actually changed so far. */
+    private final TLongList positions = new TLongArrayList();
+    /** Client only, the positions the server has confirmed so far. */
+    private final TLongSet confirmed = new TLongHashSet();
+    private boolean finished;
+    private boolean reconciled;
+    private int age;
+
+    private ChiselPrediction(BlockPos origin, IBlockState before, IBlockState after) {
+        this.origin = origin;
+        this.before = before;
+        this.after = after;
+    }
+
+    /**
+     * Starts tracking a click which is about to be chiseled from {@code before} to {@code after}. On the client, this tells the server which number to send the result back under.
+     */
+    static ChiselPrediction begin(EntityPlayer player, BlockPos origin, IBlockState before, IBlockState after) {
+        ChiselPrediction prediction = new ChiselPrediction(origin, before, after);
+        if (player.world.isRemote) {
+            prediction.seq = nextSeq++ & Integer.MAX_VALUE;
+            predictions.put(prediction.seq, prediction);
+            Chisel.network.sendToServer(new PacketChiselPrediction(prediction.seq, origin));
+        } else {
+            List<Claim> pending = claims.get(player.getUniqueID());
+            if (pending != null) {
+                for (Iterator<Claim> iter = pending.iterator(); iter.hasNext();) {
+                    Claim claim = iter.next();
+                    if (claim.origin.equals(origin)) {
+                        iter.remove();
+                        prediction.seq = claim.seq;
+                        break;
+                    }
+                }
+            }
+            results.computeIfAbsent(player.getUniqueID(), id -> new ArrayList<>()).add(prediction);
+        }
+        return prediction;
+    }
+
+    void record(Collection<BlockPos> changed) {
+        for (BlockPos pos : changed) {
+            positions.add(pos.toLong());
+        }
+    }
+
+    /**
+     * @return True if the server has already sent the result for this click, so there is no point predicting any further.
+     */
+    boolean isReconciled() {
+        return reconciled;
+    }
+
+    /**
+     * Called when the job for this click finishes or is cancelled. On the server, the result is sent as soon as the prediction it answers is known.
+     */
+    void finish(EntityPlayer player) {
+        finished = true;
+        if (!player.world.isRemote && seq != UNMATCHED) {
+            send((EntityPlayerMP) player, seq);
+        }
+    }
+
+    private void send(EntityPlayerMP player, int seq) {
+        List<ChiselPrediction> pending = results.get(player.getUniqueID());
+        if (pending != null) {
+            pending.remove(this);
+        }
+        PacketChiselReconcile.send(player, seq, before, after, positions);
+    }
+
+    /**
+     * Server side, pairs a prediction from the client with the click it predicts, or waits for that click if it has not arrived yet.
+     */
+    static void onPrediction(EntityPlayerMP player, int seq, BlockPos origin) {
+        List<ChiselPrediction> pending = results.get(player.getUniqueID());
+        if (pending != null) {
+            for (ChiselPrediction result : pending) {
+                if (result.seq == UNMATCHED && result.origin.equals(origin)) {
+                    result.seq = seq;
+                    if (result.finished) {
+                        result.send(player, seq);
+                    }
+                    return;
+                }
+            }
+        }
+        claims.computeIfAbsent(player.getUniqueID(), id -> new ArrayList<>()).add(new Claim(seq, origin));
+    }
+
+    /**
+     * Client side, applies (part of) the server's result for a click. The final part also rolls back anything predicted which the server did not confirm.
+     * <p>
+     * The result is only sent once the whole job is done, so newer changes to the same blocks, by other players or by this player's next job, may already have reached the client. Only blocks
+     * still in the state this click left them in (or found them in) are touched, so those newer changes are never overwritten.
+     */
+    static void reconcile(World world, int seq, IBlockState before, IBlockState after, long[] changed, boolean last) {
+        BlockChangeBatch batch = new BlockChangeBatch(world);
+        for (long packed : changed) {
+            BlockPos pos = BlockPos.fromLong(packed);
+            if (world.isBlockLoaded(pos) && world.getBlockState(pos) == before) {
+                batch.setBlockState(pos, after);
+            }
+        }
+        @Nullable
+        ChiselPrediction prediction = seq == UNMATCHED ? null : predictions.get(seq);
+        if (prediction != null) {
+            prediction.confirmed.addAll(changed);
+            if (last) {
+                predictions.remove(seq);
+                prediction.reconciled = true;
+                for (int i = 0; i < prediction.positions.size(); i++) {
+                    long packed = prediction.positions.get(i);
+                    BlockPos pos = BlockPos.fromLong(packed);
+                    if (!prediction.confirmed.contains(packed) && world.isBlockLoaded(pos) && world.getBlockState(pos) == prediction.after) {
+                        batch.setBlockState(pos, prediction.before);
+                    }
+                }
+            }
+        }
+        batch.apply();
+    }
+
+    @SubscribeEvent
+    public static void onPlayerTick(PlayerTickEvent event) {
+        if (event.phase != Phase.END || event.player.world.isRemote) {
+            return;
+        }
+        EntityPlayerMP player = (EntityPlayerMP) event.player;
+        List<ChiselPrediction> pending = results.get(player.getUniqueID());
+        if (pending != null) {
+            for (Iterator<ChiselPrediction> iter = pending.iterator(); iter.hasNext();) {
+                ChiselPrediction result = iter.next();
+                if (result.finished && result.seq == UNMATCHED && ++result.age > TIMEOUT) {
+                    iter.remove();
+                    PacketChiselReconcile.send(player, UNMATCHED, result.before, result.after, result.positions);
+                }
+            }
+            if (pending.isEmpty()) {
+                results.remove(player.getUniqueID());
+            }
+        }
+        List<Claim> unclaimed = claims.get(player.getUniqueID());
+        if (unclaimed != null) {
+            for (Iterator<Claim> iter = unclaimed.iterator(); iter.hasNext();) {
+                Claim claim = iter.next();
+                if (++claim.age > TIMEOUT) {
+                    iter.remove();
+                    // No click arrived, so nothing was chiseled and everything predicted is wrong
+                    PacketChiselReconcile.send(player, claim.seq, Blocks.AIR.getDefaultState(), Blocks.AIR.getDefaultState(), new TLongArrayList(0));
+                }
+            }
+            if (unclaimed.isEmpty()) {
+                claims.remove(player.getUniqueID());
+            }
+        }
+    }
+
+    @SubscribeEvent
+    public static void onLogout(PlayerLoggedOutEvent event) {
+        results.remove(event.player.getUniqueID());
+        claims.remove(event.player.getUniqueID());
+    }
+
+    @SubscribeEvent
+    public static void onWorldUnload(WorldEvent.Unload event) {
+        if (event.getWorld().isRemote) {
+            predictions.clear();
+        }
+    }
+}
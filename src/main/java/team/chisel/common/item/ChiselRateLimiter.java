@@ -0,0 +1,95 @@
+package team.chisel.common.item;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import javax.annotation.ParametersAreNonnullByDefault;
+
+import lombok.Getter;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import net.minecraftforge.fml.common.gameevent.PlayerEvent.PlayerLoggedOutEvent;
+import team.chisel.common.config.Configurations;
+
+/**
+ * A per-player token bucket limiting how many blocks the server chisels on each player's behalf.
+ * <p>
+ * Every tick a player earns {@link Configurations#chiselRateLimit} blocks, up to {@link Configurations#chiselRateBurst} saved up. Jobs take what they need before each tick's work and give back what
+ * they did not use; a job that gets nothing simply waits for the next tick. The client only predicts what the server will do, so it is never limited.
+ */
+@ParametersAreNonnullByDefault
+public class ChiselRateLimiter {
+
+    private static final Map<UUID, ChiselRateLimiter> limiters = new HashMap<>();
+
+    private static final ChiselRateLimiter UNLIMITED = new ChiselRateLimiter(false);
+
+    private final boolean limited;
+
+    /** The number of blocks the player can currently chisel. */
+    @Getter
+    private int tokens = Configurations.chiselRateBurst;
+
+    private int ticks;
+    private int converted;
+    /** The number of blocks chiseled over the last full second. */
+    @Getter
+    private int rate;
+
+    private ChiselRateLimiter(boolean limited) {
+        this.limited = limited;
+    }
+
+    public static ChiselRateLimiter get(EntityPlayer player) {
+        if (player.world.isRemote) {
+            return UNLIMITED;
+        }
+        return limiters.computeIfAbsent(player.getUniqueID(), id -> new ChiselRateLimiter(true));
+    }
+
+    @SubscribeEvent
+    public static void onLogout(PlayerLoggedOutEvent event) {
+        limiters.remove(event.player.getUniqueID());
+    }
+
+    /**
+     * Called once per server tick for each player.
+     */
+    void tick() {
+        tokens = (int) Math.min(Configurations.chiselRateBurst, (long) tokens + Configurations.chiselRateLimit);
+        if (++ticks >= 20) {
+            rate = converted;
+            converted = 0;
+            ticks = 0;
+        }
+    }
+
+    /**
+     * @return How many of the wanted blocks may be chiseled right now, possibly zero.
+     */
+    int take(int wanted) {
+        if (!limited || Configurations.chiselRateLimit == 0) {
+            return wanted;
+        }
+        int granted = Math.min(wanted, tokens);
+        tokens -= granted;
+        return granted;
+    }
+
+    /**
+     * Returns blocks that were taken but not used.
+     */
+    void refund(int unused) {
+        if (limited && Configurations.chiselRateLimit != 0) {
+            tokens += unused;
+        }
+    }
+
+    /**
+     * Counts blocks actually chiseled, for {@link #getRate()}.
+     */
+    void converted(int count) {
+        converted += count;
+    }
+}
@@ -0,0 +1,158 @@
+package team.chisel.common.item;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import javax.annotation.Nullable;
+import javax.annotation.ParametersAreNonnullByDefault;
+
+import gnu.trove.map.TLongObjectMap;
+import gnu.trove.map.hash.TLongObjectHashMap;
+import gnu.trove.set.TLongSet;
+import gnu.trove.set.hash.TLongHashSet;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.util.EnumFacing;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.BlockPos.MutableBlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.IBlockAccess;
+import net.minecraft.world.World;
+import net.minecraft.world.chunk.Chunk;
+
+/**
+ * Breadth-first search over blocks with the same state as the origin, up to a maximum distance. Blocks which are solid on all sides are neither returned nor searched through.
+ * <p>
+ * Positions are tracked as packed longs (see {@link BlockPos#toLong()}) in a primitive open-addressing set and a ring buffer queue, neighbours are visited with mutable positions, and when searching
+ * a {@link World} block states are read through a per-search chunk cache. The only allocation per candidate is the returned {@link BlockPos}.
+ * <p>
+ * A search may be consumed over many ticks, so cached chunks are only used while they are still loaded. A chunk that was unloaded (and possibly loaded again) in the meantime is looked up afresh.
+ */
+@ParametersAreNonnullByDefault
+public class ContiguousIterator implements Iterator<BlockPos> {
+
+    // Mirrors the layout of BlockPos#toLong
+    private static final int X_SHIFT = 38, Y_SHIFT = 26;
+
+    private final IBlockAccess world;
+    private final @Nullable World chunkSource;
+    private final IBlockState state;
+    private final EnumFacing[] directions;
+    private final int range;
+
+    private final TLongSet seen = new TLongHashSet();
+
+    private long[] queue = new long[64];
+    private int head, tail;
+    /** Distance from the origin of the node at {@link #head}. */
+    private int distance;
+    /** Value of {@link #tail} at which the current distance ends. */
+    private int layerEnd;
+
+    private final MutableBlockPos cursor = new MutableBlockPos();
+    private final MutableBlockPos probe = new MutableBlockPos();
+
+    private final TLongObjectMap<Chunk> chunks = new TLongObjectHashMap<>();
+    private @Nullable Chunk lastChunk;
+    private int lastChunkX, lastChunkZ;
+
+    public ContiguousIterator(BlockPos origin, IBlockAccess world, EnumFacing[] directions, int range) {
+        this.world = world;
+        this.chunkSource = world instanceof World ? (World) world : null;
+        this.directions = directions;
+        this.range = range;
+        this.state = getBlockState(origin);
+
+        long packed = origin.toLong();
+        seen.add(packed);
+        enqueue(packed);
+        layerEnd = tail;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return head != tail;
+    }
+
+    @Override
+    public BlockPos next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        if (head == layerEnd) {
+            distance++;
+            layerEnd = tail;
+        }
+        long packed = queue[head++ & (queue.length - 1)];
+        if (distance < range) {
+            expand(packed);
+        }
+        return BlockPos.fromLong(packed);
+    }
+
+    private void expand(long packed) {
+        int x = unpackX(packed), y = unpackY(packed), z = unpackZ(packed);
+        for (EnumFacing face : directions) {
+            cursor.setPos(x + face.getFrontOffsetX(), y + face.getFrontOffsetY(), z + face.getFrontOffsetZ());
+            long neighbor = cursor.toLong();
+            if (seen.add(neighbor) && getBlockState(cursor) == state && !isObscured(cursor)) {
+                enqueue(neighbor);
+            }
+        }
+    }
+
+    private boolean isObscured(BlockPos pos) {
+        for (EnumFacing face : EnumFacing.VALUES) {
+            probe.setPos(pos.getX() + face.getFrontOffsetX(), pos.getY() + face.getFrontOffsetY(), pos.getZ() + face.getFrontOffsetZ());
+            if (!getBlockState(probe).isSideSolid(world, probe, face.getOpposite())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void enqueue(long packed) {
+        if (tail - head == queue.length) {
+            long[] grown = new long[queue.length * 2];
+            for (int i = head; i != tail; i++) {
+                grown[i & (grown.length - 1)] = queue[i & (queue.length - 1)];
+            }
+            queue = grown;
+        }
+        queue[tail++ & (queue.length - 1)] = packed;
+    }
+
+    private IBlockState getBlockState(BlockPos pos) {
+        World chunkSource = this.chunkSource;
+        if (chunkSource == null || chunkSource.isOutsideBuildHeight(pos)) {
+            return world.getBlockState(pos);
+        }
+        int chunkX = pos.getX() >> 4;
+        int chunkZ = pos.getZ() >> 4;
+        Chunk chunk = lastChunk;
+        if (chunk == null || chunkX != lastChunkX || chunkZ != lastChunkZ || !chunk.isLoaded()) {
+            long key = ChunkPos.asLong(chunkX, chunkZ);
+            chunk = chunks.get(key);
+            // Placeholder chunks for unloaded areas are never loaded, so they are not reused either
+            if (chunk == null || !chunk.isLoaded()) {
+                chunk = chunkSource.getChunkFromChunkCoords(chunkX, chunkZ);
+                chunks.put(key, chunk);
+            }
+            lastChunk = chunk;
+            lastChunkX = chunkX;
+            lastChunkZ = chunkZ;
+        }
+        return chunk.getBlockState(pos);
+    }
+
+    private static int unpackX(long packed) {
+        return (int) (packed >> X_SHIFT);
+    }
+
+    private static int unpackY(long packed) {
+        return (int) (packed << (64 - X_SHIFT) >> (64 - X_SHIFT + Y_SHIFT));
+    }
+
+    private static int unpackZ(long packed) {
+        return (int) (packed << (64 - Y_SHIFT) >> (64 - Y_SHIFT));
+    }
+}
@@ -142,6 +142,19 @@ public class ItemChisel extends Item implements IChiselItem {
         return !chisel.isEmpty();
     }
 
+    @Override
+    public int craftItems(ItemStack chisel, ItemStack source, ItemStack target, int count, EntityPlayer player) {
+        if (chisel.isEmpty() || count <= 0) {
+            return 0;
+        }
+        if (!chisel.isItemStackDamageable()) {
+            return count;
+        }
+        int crafted = Math.min(count, chisel.getMaxDamage() - chisel.getItemDamage() + 1);
+        chisel.damageItem(crafted, player);
+        return crafted;
+    }
+
     @Override
     public boolean onChisel(World world, EntityPlayer player, ItemStack chisel, ICarvingVariation target) {
         return Configurations.allowChiselDamage;
@@ -154,7 +167,8 @@ public class ItemChisel extends Item implements IChiselItem {
 
     @Override
     public boolean supportsMode(EntityPlayer player, ItemStack chisel, IChiselMode mode) {
-        return type == ChiselType.HITECH || ((type == ChiselType.DIAMOND || Configurations.ironChiselHasModes) && mode != ChiselMode.CONTIGUOUS && mode != ChiselMode.CONTIGUOUS_2D);
+        return type == ChiselType.HITECH || ((type == ChiselType.DIAMOND || Configurations.ironChiselHasModes) && mode != ChiselMode.CONTIGUOUS && mode != ChiselMode.CONTIGUOUS_2D
+                && mode != ChiselMode.BOX && mode != ChiselMode.LINE && mode != ChiselMode.PLANE);
     }
 
     // TODO implement ChiselController
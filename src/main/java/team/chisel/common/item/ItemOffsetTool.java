@@ -8,6 +8,7 @@ import static net.minecraft.util.EnumFacing.UP;
 import static net.minecraft.util.EnumFacing.WEST;
 
 import java.awt.geom.Line2D;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -15,11 +16,14 @@ import java.util.Map;
 import javax.annotation.Nonnull;
 import javax.annotation.ParametersAreNonnullByDefault;
 
+import org.apache.commons.lang3.ArrayUtils;
 import org.lwjgl.opengl.GL11;
 
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 
+import io.netty.buffer.ByteBuf;
+import lombok.RequiredArgsConstructor;
 import lombok.ToString;
 import net.minecraft.block.state.IBlockState;
 import net.minecraft.client.Minecraft;
@@ -32,54 +36,210 @@ import net.minecraft.client.renderer.block.model.IBakedModel;
 import net.minecraft.client.renderer.vertex.DefaultVertexFormats;
 import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
 import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.util.ActionResult;
 import net.minecraft.util.EnumActionResult;
 import net.minecraft.util.EnumFacing;
 import net.minecraft.util.EnumHand;
 import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
 import net.minecraft.util.math.RayTraceResult;
 import net.minecraft.util.math.RayTraceResult.Type;
 import net.minecraft.util.math.Vec3d;
+import net.minecraft.util.text.TextComponentTranslation;
 import net.minecraft.world.World;
+import net.minecraft.world.WorldServer;
+import net.minecraft.world.chunk.Chunk;
 import net.minecraftforge.client.event.DrawBlockHighlightEvent;
 import net.minecraftforge.common.MinecraftForge;
 import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import net.minecraftforge.fml.common.network.ByteBufUtils;
 import net.minecraftforge.fml.relauncher.Side;
 import net.minecraftforge.fml.relauncher.SideOnly;
 import team.chisel.api.block.ICarvable;
 import team.chisel.api.chunkdata.IOffsetData;
 import team.chisel.common.init.ChiselTabs;
-import team.chisel.common.util.NBTSaveable;
+import team.chisel.common.util.BinarySaveable;
+import team.chisel.common.util.NBTUtil;
 import team.chisel.common.util.PerChunkData;
+import team.chisel.common.util.PerChunkData.BinaryChunkDataBase;
 import team.chisel.common.util.PerChunkData.ChunkDataBase;
 import team.chisel.ctm.client.model.AbstractCTMBakedModel;
 
 @ParametersAreNonnullByDefault
 public class ItemOffsetTool extends Item {
     
+    /**
+     * Offsets are stored per 16x16x16 section as a palette of up to 16 offsets plus a 4-bit palette index per section, which fits in a single long. A chunk with one offset for the whole column has a
+     * single palette entry.
+     */
     @ToString
-    public static class OffsetData implements NBTSaveable, IOffsetData {
+    public static class OffsetData implements BinarySaveable, IOffsetData {
 
-        private BlockPos offset = BlockPos.ORIGIN;
+        /**
+         * Immutable, so that render threads never see a palette and indices that don't match.
+         */
+        @RequiredArgsConstructor
+        @ToString
+        private static class Sections {
+
+            private static final Sections NONE = new Sections(new BlockPos[] { BlockPos.ORIGIN }, 0);
+
+            private final BlockPos[] palette;
+            private final long indices;
+
+            BlockPos get(int section) {
+                return palette[(int) (indices >>> (section << 2)) & 0xF];
+            }
+
+            /**
+             * Builds the palette in section order, so the first entry is always the offset of the bottom section.
+             */
+            static Sections of(BlockPos[] offsets) {
+                List<BlockPos> palette = new ArrayList<>(1);
+                long indices = 0;
+                for (int i = 0; i < offsets.length; i++) {
+                    int idx = palette.indexOf(offsets[i]);
+                    if (idx < 0) {
+                        idx = palette.size();
+                        palette.add(offsets[i]);
+                    }
+                    indices |= (long) idx << (i << 2);
+                }
+                return new Sections(palette.toArray(new BlockPos[palette.size()]), indices);
+            }
+        }
+
+        private volatile Sections sections = Sections.NONE;
 
         @Override
         public void write(NBTTagCompound tag) {
-            tag.setShort("offset", (short) (offset.getX() << 8 | offset.getY() << 4 | offset.getZ()));
+            Sections sections = this.sections;
+            tag.setShort("offset", (short) pack(sections.palette[0]));
+            if (sections.palette.length > 1) {
+                int[] palette = new int[sections.palette.length];
+                for (int i = 0; i < palette.length; i++) {
+                    palette[i] = pack(sections.palette[i]);
+                }
+                tag.setIntArray("palette", palette);
+                tag.setLong("sections", sections.indices);
+            }
         }
 
         @Override
         public void read(NBTTagCompound tag) {
-            short data = tag.getShort("offset");
-            offset = new BlockPos((data >> 8) & 0xF, (data >> 4) & 0xF, data & 0xF);
+            if (tag.hasKey("palette")) {
+                int[] packed = tag.getIntArray("palette");
+                BlockPos[] palette = new BlockPos[packed.length];
+                for (int i = 0; i < palette.length; i++) {
+                    palette[i] = unpack(packed[i]);
+                }
+                sections = validate(palette, tag.getLong("sections"));
+            } else {
+                sections = new Sections(new BlockPos[] { unpack(tag.getShort("offset")) }, 0);
+            }
+        }
+
+        /**
+         * The first varint holds the bottom offset and the palette size, so a single-offset chunk is 1-2 bytes. Extra palette entries follow, then the indices at the minimum bit width.
+         */
+        @Override
+        public void write(ByteBuf buf) {
+            Sections sections = this.sections;
+            int size = sections.palette.length;
+            ByteBufUtils.writeVarInt(buf, (size - 1) << 12 | pack(sections.palette[0]), 3);
+            if (size > 1) {
+                for (int i = 1; i < size; i++) {
+                    ByteBufUtils.writeVarInt(buf, pack(sections.palette[i]), 2);
+                }
+                int bits = 32 - Integer.numberOfLeadingZeros(size - 1);
+                long indices = 0;
+                for (int i = 0; i < 16; i++) {
+                    indices |= ((sections.indices >>> (i << 2)) & 0xF) << (i * bits);
+                }
+                for (int i = 0; i < bits * 2; i++) {
+                    buf.writeByte((int) (indices >>> (i << 3)));
+                }
+            }
+        }
+
+        @Override
+        public void read(ByteBuf buf) {
+            int header = ByteBufUtils.readVarInt(buf, 3);
+            int size = (header >>> 12) + 1;
+            BlockPos[] palette = new BlockPos[size];
+            palette[0] = unpack(header);
+            if (size == 1) {
+                sections = new Sections(palette, 0);
+                return;
+            }
+            for (int i = 1; i < size; i++) {
+                palette[i] = unpack(ByteBufUtils.readVarInt(buf, 2));
+            }
+            int bits = 32 - Integer.numberOfLeadingZeros(size - 1);
+            long packed = 0;
+            for (int i = 0; i < bits * 2; i++) {
+                packed |= (buf.readByte() & 0xFFL) << (i << 3);
+            }
+            long indices = 0;
+            for (int i = 0; i < 16; i++) {
+                indices |= ((packed >>> (i * bits)) & ((1 << bits) - 1)) << (i << 2);
+            }
+            sections = validate(palette, indices);
+        }
+
+        private Sections validate(BlockPos[] palette, long indices) {
+            Sections ret = new Sections(palette, indices);
+            for (int i = 0; i < 16; i++) {
+                if (((indices >>> (i << 2)) & 0xF) >= palette.length) {
+                    return new Sections(new BlockPos[] { palette.length == 0 ? BlockPos.ORIGIN : palette[0] }, 0);
+                }
+            }
+            return ret;
+        }
+
+        private static int pack(BlockPos offset) {
+            return offset.getX() << 8 | offset.getY() << 4 | offset.getZ();
+        }
+
+        private static BlockPos unpack(int data) {
+            return new BlockPos((data >> 8) & 0xF, (data >> 4) & 0xF, data & 0xF);
         }
 
+        /**
+         * Moves the offset of every section.
+         */
         void move(EnumFacing dir) {
-            offset = wrap(offset.offset(dir.getOpposite()));
+            Sections cur = sections;
+            BlockPos[] palette = new BlockPos[cur.palette.length];
+            for (int i = 0; i < palette.length; i++) {
+                palette[i] = wrap(cur.palette[i].offset(dir.getOpposite()));
+            }
+            sections = new Sections(palette, cur.indices);
+        }
+
+        /**
+         * Moves the offset of a single section, splitting it from the rest of the column.
+         */
+        void move(EnumFacing dir, int section) {
+            Sections cur = sections;
+            BlockPos[] offsets = new BlockPos[16];
+            for (int i = 0; i < offsets.length; i++) {
+                offsets[i] = cur.get(i);
+            }
+            offsets[section] = wrap(offsets[section].offset(dir.getOpposite()));
+            sections = Sections.of(offsets);
         }
 
         @Override
         public @Nonnull BlockPos getOffset() {
-            return offset;
+            return sections.palette[0];
+        }
+
+        @Override
+        public @Nonnull BlockPos getOffset(int y) {
+            return sections.get((y >> 4) & 0xF);
         }
 
         private int positiveModulo(int num, int denom) {
@@ -92,6 +252,9 @@ public class ItemOffsetTool extends Item {
     }
 
     public static final String DATA_KEY = "offsettool";
+    private static final String KEY_SECTION_MODE = "sectionmode";
+    private static final String KEY_RADIUS = "radius";
+    private static final int[] AREA_RADII = { 1, 2, 4, 8 };
 //    private static final List<TextureType> validTypes = Lists.newArrayList(TextureType.V4, TextureType.V9 /* SOON, TextureType.V16 */);
     
 
@@ -101,7 +264,7 @@ public class ItemOffsetTool extends Item {
         setUnlocalizedName("chisel.offsettool");
         setRegistryName("offsettool");
         setFull3D();
-        PerChunkData.INSTANCE.registerChunkData(DATA_KEY, new ChunkDataBase<OffsetData>(OffsetData.class, true));
+        PerChunkData.INSTANCE.registerChunkData(DATA_KEY, new BinaryChunkDataBase<OffsetData>(OffsetData.class, true));
         MinecraftForge.EVENT_BUS.register(this);
     }
 
@@ -112,15 +275,102 @@ public class ItemOffsetTool extends Item {
             if (world.isRemote) {
                 return canOffset(player, world, pos, hand, facing) ? EnumActionResult.SUCCESS : EnumActionResult.PASS;
             } else {
-                ChunkDataBase<OffsetData> cd = PerChunkData.INSTANCE.getData(DATA_KEY);
-                OffsetData data = cd.getDataForChunk(world.provider.getDimension(), world.getChunkFromBlockCoords(pos).getPos());
-                data.move(getMoveDir(facing, hitX, hitY, hitZ));
-                PerChunkData.INSTANCE.chunkModified(world.getChunkFromBlockCoords(pos), DATA_KEY);
+                ItemStack stack = player.getHeldItem(hand);
+                EnumFacing dir = getMoveDir(facing, hitX, hitY, hitZ);
+                int section = isSectionMode(stack) ? pos.getY() >> 4 : -1;
+                int radius = getRadius(stack);
+                if (radius > 0) {
+                    offsetArea((WorldServer) world, new ChunkPos(pos), radius, dir, section);
+                } else {
+                    ChunkDataBase<OffsetData> cd = PerChunkData.INSTANCE.getData(DATA_KEY);
+                    Chunk chunk = world.getChunkFromBlockCoords(pos);
+                    move(cd.getOrCreateDataForChunk(world.provider.getDimension(), chunk.getPos()), dir, section);
+                    PerChunkData.INSTANCE.chunkModified(chunk, DATA_KEY);
+                }
             }
         }
         return super.onItemUse(player, world, pos, hand, facing, hitX, hitY, hitZ);
     }
 
+    /**
+     * Offsets every loaded chunk in a square around the center, then syncs them all at once.
+     */
+    private void offsetArea(WorldServer world, ChunkPos center, int radius, EnumFacing dir, int section) {
+        List<Chunk> chunks = new ArrayList<>();
+        List<ChunkPos> positions = new ArrayList<>();
+        for (int x = center.x - radius; x <= center.x + radius; x++) {
+            for (int z = center.z - radius; z <= center.z + radius; z++) {
+                Chunk chunk = world.getChunkProvider().getLoadedChunk(x, z);
+                if (chunk != null) {
+                    chunks.add(chunk);
+                    positions.add(chunk.getPos());
+                }
+            }
+        }
+        ChunkDataBase<OffsetData> cd = PerChunkData.INSTANCE.getData(DATA_KEY);
+        for (OffsetData data : cd.getOrCreateDataForChunks(world.provider.getDimension(), positions)) {
+            move(data, dir, section);
+        }
+        PerChunkData.INSTANCE.chunksModified(world, chunks, DATA_KEY);
+    }
+
+    private void move(OffsetData data, EnumFacing dir, int section) {
+        if (section >= 0) {
+            data.move(dir, section);
+        } else {
+            data.move(dir);
+        }
+    }
+
+    @Override
+    public ActionResult<ItemStack> onItemRightClick(World world, EntityPlayer player, EnumHand hand) {
+        ItemStack stack = player.getHeldItem(hand);
+        if (player.isSneaking()) {
+            if (!world.isRemote) {
+                cycleMode(stack);
+                int radius = getRadius(stack);
+                if (radius > 0) {
+                    player.sendStatusMessage(new TextComponentTranslation("item.chisel.offsettool.mode.area", radius * 2 + 1), true);
+                } else {
+                    player.sendStatusMessage(new TextComponentTranslation("item.chisel.offsettool.mode." + (isSectionMode(stack) ? "section" : "column")), true);
+                }
+            }
+            return ActionResult.newResult(EnumActionResult.SUCCESS, stack);
+        }
+        return super.onItemRightClick(world, player, hand);
+    }
+
+    /**
+     * Cycles through whole chunk, single section, then square areas of chunks with increasing radius.
+     */
+    private void cycleMode(ItemStack stack) {
+        NBTTagCompound tag = NBTUtil.getTag(stack);
+        int radius = getRadius(stack);
+        if (isSectionMode(stack)) {
+            tag.setBoolean(KEY_SECTION_MODE, false);
+            tag.setInteger(KEY_RADIUS, AREA_RADII[0]);
+        } else if (radius == 0) {
+            tag.setBoolean(KEY_SECTION_MODE, true);
+        } else {
+            int next = ArrayUtils.indexOf(AREA_RADII, radius) + 1;
+            tag.setInteger(KEY_RADIUS, next < AREA_RADII.length ? AREA_RADII[next] : 0);
+        }
+    }
+
+    /**
+     * In section mode, the wand moves the offset of the targeted 16x16x16 section rather than the whole chunk column.
+     */
+    public static boolean isSectionMode(ItemStack stack) {
+        return stack.hasTagCompound() && stack.getTagCompound().getBoolean(KEY_SECTION_MODE);
+    }
+
+    /**
+     * The radius, in chunks, of the area offset at once. 0 to offset only the targeted chunk.
+     */
+    public static int getRadius(ItemStack stack) {
+        return stack.hasTagCompound() ? stack.getTagCompound().getInteger(KEY_RADIUS) : 0;
+    }
+
     public EnumFacing getMoveDir(EnumFacing face, double xCoord, double yCoord, double zCoord) {
         Map<Double, EnumFacing> map = Maps.newHashMap();
         if (face.getFrontOffsetX() != 0) {
@@ -0,0 +1,58 @@
+package team.chisel.common.item;
+
+import io.netty.buffer.ByteBuf;
+import lombok.NoArgsConstructor;
+import net.minecraft.entity.player.EntityPlayerMP;
+import net.minecraftforge.fml.common.FMLCommonHandler;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import net.minecraftforge.fml.common.gameevent.PlayerEvent.PlayerLoggedInEvent;
+import net.minecraftforge.fml.common.network.FMLNetworkEvent.ClientDisconnectionFromServerEvent;
+import net.minecraftforge.fml.common.network.simpleimpl.IMessage;
+import net.minecraftforge.fml.common.network.simpleimpl.IMessageHandler;
+import net.minecraftforge.fml.common.network.simpleimpl.MessageContext;
+import team.chisel.Chisel;
+import team.chisel.common.config.Configurations;
+
+/**
+ * The server's chisel settings that the client needs to predict what a click will do, sent when a player logs in. The client falls back to its own config when it disconnects.
+ */
+@NoArgsConstructor
+public class PacketChiselConfig implements IMessage {
+
+    private int contiguousRange;
+
+    private PacketChiselConfig(int contiguousRange) {
+        this.contiguousRange = contiguousRange;
+    }
+
+    @SubscribeEvent
+    public static void onLogin(PlayerLoggedInEvent event) {
+        if (event.player instanceof EntityPlayerMP) {
+            Chisel.network.sendTo(new PacketChiselConfig(Configurations.contiguousChiselRange), (EntityPlayerMP) event.player);
+        }
+    }
+
+    @SubscribeEvent
+    public static void onDisconnect(ClientDisconnectionFromServerEvent event) {
+        ChiselMode.setServerContiguousRange(0);
+    }
+
+    @Override
+    public void toBytes(ByteBuf buf) {
+        buf.writeInt(this.contiguousRange);
+    }
+
+    @Override
+    public void fromBytes(ByteBuf buf) {
+        this.contiguousRange = buf.readInt();
+    }
+
+    public static class Handler implements IMessageHandler<PacketChiselConfig, IMessage> {
+
+        @Override
+        public IMessage onMessage(PacketChiselConfig message, MessageContext ctx) {
+            FMLCommonHandler.instance().getWorldThread(ctx.getClientHandler()).addScheduledTask(() -> ChiselMode.setServerContiguousRange(message.contiguousRange));
+            return null;
+        }
+    }
+}
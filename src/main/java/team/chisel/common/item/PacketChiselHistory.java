@@ -0,0 +1,47 @@
+package team.chisel.common.item;
+
+import io.netty.buffer.ByteBuf;
+import lombok.NoArgsConstructor;
+import net.minecraft.entity.player.EntityPlayerMP;
+import net.minecraftforge.fml.common.network.simpleimpl.IMessage;
+import net.minecraftforge.fml.common.network.simpleimpl.IMessageHandler;
+import net.minecraftforge.fml.common.network.simpleimpl.MessageContext;
+import team.chisel.api.IChiselItem;
+
+@NoArgsConstructor
+public class PacketChiselHistory implements IMessage {
+
+    private boolean redo;
+
+    public PacketChiselHistory(boolean redo) {
+        this.redo = redo;
+    }
+
+    @Override
+    public void toBytes(ByteBuf buf) {
+        buf.writeBoolean(this.redo);
+    }
+
+    @Override
+    public void fromBytes(ByteBuf buf) {
+        this.redo = buf.readBoolean();
+    }
+
+    public static class Handler implements IMessageHandler<PacketChiselHistory, IMessage> {
+
+        @Override
+        public IMessage onMessage(PacketChiselHistory message, MessageContext ctx) {
+            EntityPlayerMP player = ctx.getServerHandler().player;
+            player.getServer().addScheduledTask(() -> {
+                if (player.getHeldItemMainhand().getItem() instanceof IChiselItem) {
+                    if (message.redo) {
+                        ChiselHistory.get(player).redo(player);
+                    } else {
+                        ChiselHistory.get(player).undo(player);
+                    }
+                }
+            });
+            return null;
+        }
+    }
+}
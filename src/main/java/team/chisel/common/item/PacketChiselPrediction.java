@@ -0,0 +1,46 @@
+package team.chisel.common.item;
+
+import io.netty.buffer.ByteBuf;
+import lombok.NoArgsConstructor;
+import net.minecraft.entity.player.EntityPlayerMP;
+import net.minecraft.util.math.BlockPos;
+import net.minecraftforge.fml.common.network.simpleimpl.IMessage;
+import net.minecraftforge.fml.common.network.simpleimpl.IMessageHandler;
+import net.minecraftforge.fml.common.network.simpleimpl.MessageContext;
+
+/**
+ * Sent by the client after it predicts the result of a chisel click, so the server can send the real result back under the same number.
+ */
+@NoArgsConstructor
+public class PacketChiselPrediction implements IMessage {
+
+    private int seq;
+    private BlockPos pos = BlockPos.ORIGIN;
+
+    public PacketChiselPrediction(int seq, BlockPos pos) {
+        this.seq = seq;
+        this.pos = pos;
+    }
+
+    @Override
+    public void toBytes(ByteBuf buf) {
+        buf.writeInt(this.seq);
+        buf.writeLong(this.pos.toLong());
+    }
+
+    @Override
+    public void fromBytes(ByteBuf buf) {
+        this.seq = buf.readInt();
+        this.pos = BlockPos.fromLong(buf.readLong());
+    }
+
+    public static class Handler implements IMessageHandler<PacketChiselPrediction, IMessage> {
+
+        @Override
+        public IMessage onMessage(PacketChiselPrediction message, MessageContext ctx) {
+            EntityPlayerMP player = ctx.getServerHandler().player;
+            player.getServer().addScheduledTask(() -> ChiselPrediction.onPrediction(player, message.seq, message.pos));
+            return null;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package team.chisel.common.item;
+
+import gnu.trove.iterator.TLongObjectIterator;
+import gnu.trove.list.TLongList;
+import gnu.trove.list.TShortList;
+import gnu.trove.list.array.TLongArrayList;
+import gnu.trove.list.array.TShortArrayList;
+import gnu.trove.map.TLongObjectMap;
+import gnu.trove.map.hash.TLongObjectHashMap;
+import io.netty.buffer.ByteBuf;
+import lombok.NoArgsConstructor;
+import net.minecraft.block.Block;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.entity.player.EntityPlayerMP;
+import net.minecraft.init.Blocks;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.World;
+import net.minecraftforge.fml.common.FMLCommonHandler;
+import net.minecraftforge.fml.common.network.ByteBufUtils;
+import net.minecraftforge.fml.common.network.simpleimpl.IMessage;
+import net.minecraftforge.fml.common.network.simpleimpl.IMessageHandler;
+import net.minecraftforge.fml.common.network.simpleimpl.MessageContext;
+import team.chisel.Chisel;
+
+/**
+ * The server's result for a predicted chisel click: every position it changed, all from and to the same states. Positions are grouped by chunk and sent as chunk-relative offsets, the same way vanilla's
+ * multi-block change packet does, and large results are split over several packets.
+ */
+@NoArgsConstructor
+public class PacketChiselReconcile implements IMessage {
+
+    private static final int MAX_POSITIONS = 1 << 15;
+
+    private int seq;
+    private IBlockState before = Blocks.AIR.getDefaultState();
+    private IBlockState state = Blocks.AIR.getDefaultState();
+    private long[] positions = new long[0];
+    private boolean last;
+
+    private PacketChiselReconcile(int seq, IBlockState before, IBlockState state, long[] positions, boolean last) {
+        this.seq = seq;
+        this.before = before;
+        this.state = state;
+        this.positions = positions;
+        this.last = last;
+    }
+
+    static void send(EntityPlayerMP player, int seq, IBlockState before, IBlockState state, TLongList positions) {
+        int start = 0;
+        do {
+            int end = Math.min(positions.size(), start + MAX_POSITIONS);
+            Chisel.network.sendTo(new PacketChiselReconcile(seq, before, state, positions.toArray(start, end - start), end == positions.size()), player);
+            start = end;
+        } while (start < positions.size());
+    }
+
+    @Override
+    public void toBytes(ByteBuf buf) {
+        buf.writeInt(this.seq);
+        ByteBufUtils.writeVarInt(buf, Block.getStateId(this.before), 5);
+        ByteBufUtils.writeVarInt(buf, Block.getStateId(this.state), 5);
+        buf.writeBoolean(this.last);
+        TLongObjectMap<TShortList> byChunk = new TLongObjectHashMap<>();
+        for (long packed : this.positions) {
+            BlockPos pos = BlockPos.fromLong(packed);
+            long chunk = ChunkPos.asLong(pos.getX() >> 4, pos.getZ() >> 4);
+            TShortList offsets = byChunk.get(chunk);
+            if (offsets == null) {
+                offsets = new TShortArrayList();
+                byChunk.put(chunk, offsets);
+            }
+            offsets.add((short) ((pos.getX() & 15) << 12 | (pos.getZ() & 15) << 8 | pos.getY()));
+        }
+        ByteBufUtils.writeVarInt(buf, byChunk.size(), 5);
+        for (TLongObjectIterator<TShortList> iter = byChunk.iterator(); iter.hasNext();) {
+            iter.advance();
+            buf.writeInt((int) iter.key());
+            buf.writeInt((int) (iter.key() >> 32));
+            ByteBufUtils.writeVarInt(buf, iter.value().size(), 5);
+            for (int i = 0; i < iter.value().size(); i++) {
+                buf.writeShort(iter.value().get(i));
+            }
+        }
+    }
+
+    @Override
+    public void fromBytes(ByteBuf buf) {
+        this.seq = buf.readInt();
+        this.before = Block.getStateById(ByteBufUtils.readVarInt(buf, 5));
+        this.state = Block.getStateById(ByteBufUtils.readVarInt(buf, 5));
+        this.last = buf.readBoolean();
+        int chunks = ByteBufUtils.readVarInt(buf, 5);
+        TLongList positions = new TLongArrayList();
+        for (int c = 0; c < chunks; c++) {
+            int x = buf.readInt() << 4;
+            int z = buf.readInt() << 4;
+            int size = ByteBufUtils.readVarInt(buf, 5);
+            for (int i = 0; i < size; i++) {
+                short offset = buf.readShort();
+                positions.add(new BlockPos(x | (offset >> 12 & 15), offset & 255, z | (offset >> 8 & 15)).toLong());
+            }
+        }
+        this.positions = positions.toArray();
+    }
+
+    public static class Handler implements IMessageHandler<PacketChiselReconcile, IMessage> {
+
+        @Override
+        public IMessage onMessage(PacketChiselReconcile message, MessageContext ctx) {
+            FMLCommonHandler.instance().getWorldThread(ctx.getClientHandler()).addScheduledTask(() -> {
+                World world = Chisel.proxy.getClientWorld();
+                ChiselPrediction.reconcile(world, message.seq, message.before, message.state, message.positions, message.last);
+            });
+            return null;
+        }
+    }
+}
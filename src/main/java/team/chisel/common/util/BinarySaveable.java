@@ -0,0 +1,16 @@
+package team.chisel.common.util;
+
+import javax.annotation.ParametersAreNonnullByDefault;
+
+import io.netty.buffer.ByteBuf;
+
+/**
+ * An {@link NBTSaveable} which can also be written to a raw {@link ByteBuf}, for compact network sync.
+ */
+@ParametersAreNonnullByDefault
+public interface BinarySaveable extends NBTSaveable {
+
+    void write(ByteBuf buf);
+
+    void read(ByteBuf buf);
+}
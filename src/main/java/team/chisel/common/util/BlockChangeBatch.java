@@ -0,0 +1,175 @@
+package team.chisel.common.util;
+
+import java.util.Arrays;
+
+import javax.annotation.Nullable;
+import javax.annotation.ParametersAreNonnullByDefault;
+
+import gnu.trove.iterator.TLongObjectIterator;
+import gnu.trove.map.TIntObjectMap;
+import gnu.trove.map.TLongObjectMap;
+import gnu.trove.map.hash.TIntObjectHashMap;
+import gnu.trove.map.hash.TLongObjectHashMap;
+import gnu.trove.set.TLongSet;
+import gnu.trove.set.hash.TLongHashSet;
+import net.minecraft.block.Block;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.entity.player.EntityPlayerMP;
+import net.minecraft.network.Packet;
+import net.minecraft.network.play.server.SPacketBlockChange;
+import net.minecraft.network.play.server.SPacketMultiBlockChange;
+import net.minecraft.server.management.PlayerChunkMapEntry;
+import net.minecraft.tileentity.TileEntity;
+import net.minecraft.util.EnumFacing;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.World;
+import net.minecraft.world.WorldServer;
+import net.minecraft.world.chunk.Chunk;
+
+/**
+ * Collects block changes so they can be applied to the world all at once.
+ * <p>
+ * Changes are written chunk by chunk and section by section, without neighbour or observer updates. Once everything is written, each block just outside the changed area is notified once, and on
+ * the server each chunk sends its changes to watching players in one packet. Blocks inside the batch are not notified of each other, as they were all just replaced.
+ */
+@ParametersAreNonnullByDefault
+public class BlockChangeBatch {
+
+    /** No neighbour updates, no observer updates, and no per-block sync to clients. */
+    private static final int FLAGS_SERVER = 16;
+    /** As above, but still re-render the block on the client. */
+    private static final int FLAGS_CLIENT = 2 | 16;
+
+    private final World world;
+    private final @Nullable EntityPlayer predictor;
+    /** Changes per chunk, keyed by the block's index within the chunk (see {@link #index(BlockPos)}). */
+    private final TLongObjectMap<TIntObjectMap<IBlockState>> changes = new TLongObjectHashMap<>();
+
+    public BlockChangeBatch(World world) {
+        this(world, null);
+    }
+
+    /**
+     * @param predictor
+     *            A player who has already made these changes on their own client, and so is not sent them. Tile entity data is still sent to everyone.
+     */
+    public BlockChangeBatch(World world, @Nullable EntityPlayer predictor) {
+        this.world = world;
+        this.predictor = predictor;
+    }
+
+    public void setBlockState(BlockPos pos, IBlockState state) {
+        long chunk = ChunkPos.asLong(pos.getX() >> 4, pos.getZ() >> 4);
+        TIntObjectMap<IBlockState> chunkChanges = changes.get(chunk);
+        if (chunkChanges == null) {
+            chunkChanges = new TIntObjectHashMap<>();
+            changes.put(chunk, chunkChanges);
+        }
+        chunkChanges.put(index(pos), state);
+    }
+
+    public boolean isEmpty() {
+        return changes.isEmpty();
+    }
+
+    /**
+     * Writes all queued changes to the world, notifies their surroundings, and syncs them to clients. The batch is empty afterwards and can be reused.
+     */
+    public void apply() {
+        if (changes.isEmpty()) {
+            return;
+        }
+        TLongSet changed = new TLongHashSet();
+        for (TLongObjectIterator<TIntObjectMap<IBlockState>> iter = changes.iterator(); iter.hasNext();) {
+            iter.advance();
+            int chunkX = (int) iter.key();
+            int chunkZ = (int) (iter.key() >> 32);
+            // Sorted indices are ordered by section, then by y, so each section is written in one run
+            int[] indices = iter.value().keys();
+            Arrays.sort(indices);
+            short[] offsets = new short[indices.length];
+            int count = 0;
+            for (int index : indices) {
+                BlockPos pos = getPos(chunkX, chunkZ, index);
+                if (world.setBlockState(pos, iter.value().get(index), world.isRemote ? FLAGS_CLIENT : FLAGS_SERVER)) {
+                    changed.add(pos.toLong());
+                    offsets[count++] = (short) ((pos.getX() & 15) << 12 | (pos.getZ() & 15) << 8 | pos.getY());
+                }
+            }
+            if (count > 0 && !world.isRemote) {
+                sync((WorldServer) world, chunkX, chunkZ, offsets, count);
+            }
+        }
+        changes.clear();
+
+        if (!world.isRemote) {
+            notifySurroundings(changed);
+        }
+    }
+
+    private void sync(WorldServer world, int chunkX, int chunkZ, short[] offsets, int count) {
+        PlayerChunkMapEntry entry = world.getPlayerChunkMap().getEntry(chunkX, chunkZ);
+        if (entry == null) {
+            return;
+        }
+        Chunk chunk = world.getChunkFromChunkCoords(chunkX, chunkZ);
+        Packet<?> packet;
+        if (count == 1) {
+            packet = new SPacketBlockChange(world, getPos(chunk, offsets[0]));
+        } else {
+            packet = new SPacketMultiBlockChange(count, offsets, chunk);
+        }
+        if (predictor == null) {
+            entry.sendPacket(packet);
+        } else if (entry.isSentToPlayers()) {
+            for (EntityPlayer player : world.playerEntities) {
+                if (player != predictor && entry.containsPlayer((EntityPlayerMP) player)) {
+                    ((EntityPlayerMP) player).connection.sendPacket(packet);
+                }
+            }
+        }
+        for (int i = 0; i < count; i++) {
+            TileEntity te = world.getTileEntity(getPos(chunk, offsets[i]));
+            if (te != null) {
+                Packet<?> update = te.getUpdatePacket();
+                if (update != null) {
+                    entry.sendPacket(update);
+                }
+            }
+        }
+    }
+
+    private void notifySurroundings(TLongSet changed) {
+        TLongSet notified = new TLongHashSet();
+        for (long packed : changed.toArray()) {
+            BlockPos pos = BlockPos.fromLong(packed);
+            IBlockState state = world.getBlockState(pos);
+            Block block = state.getBlock();
+            for (EnumFacing face : EnumFacing.VALUES) {
+                BlockPos neighbor = pos.offset(face);
+                long key = neighbor.toLong();
+                if (!changed.contains(key) && notified.add(key)) {
+                    world.neighborChanged(neighbor, block, pos);
+                    world.observedNeighborChanged(neighbor, block, pos);
+                }
+            }
+            if (state.hasComparatorInputOverride()) {
+                world.updateComparatorOutputLevel(pos, block);
+            }
+        }
+    }
+
+    private static int index(BlockPos pos) {
+        return pos.getY() << 8 | (pos.getZ() & 15) << 4 | (pos.getX() & 15);
+    }
+
+    private static BlockPos getPos(int chunkX, int chunkZ, int index) {
+        return new BlockPos(chunkX << 4 | (index & 15), index >> 8, chunkZ << 4 | (index >> 4 & 15));
+    }
+
+    private static BlockPos getPos(Chunk chunk, short offset) {
+        return new BlockPos(chunk.x << 4 | (offset >> 12 & 15), offset & 255, chunk.z << 4 | (offset >> 8 & 15));
+    }
+}
@@ -10,6 +10,7 @@ import com.google.common.base.Strings;
 
 import net.minecraft.item.ItemStack;
 import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.util.math.BlockPos;
 import team.chisel.Chisel;
 import team.chisel.api.carving.CarvingUtils;
 import team.chisel.api.carving.IChiselMode;
@@ -27,6 +28,7 @@ public class NBTUtil {
     private static final String KEY_TARGET_SLOT = "targetslot";
     private static final String KEY_ROTATE = "rotate";
     private static final String KEY_MODE = "mode";
+    private static final String KEY_BOX_ANCHOR = "boxanchor";
 
     @SuppressWarnings("null")
     public static NBTTagCompound getTag(ItemStack stack) {
@@ -100,5 +102,19 @@ public class NBTUtil {
 
     public static void setChiselMode(@Nonnull ItemStack chisel, @Nonnull IChiselMode mode) {
         getChiselTag(chisel).setString(KEY_MODE, mode.name());
+        setBoxAnchor(chisel, null);
+    }
+
+    public static @Nullable BlockPos getBoxAnchor(ItemStack chisel) {
+        NBTTagCompound tag = getChiselTag(chisel);
+        return tag.hasKey(KEY_BOX_ANCHOR) ? BlockPos.fromLong(tag.getLong(KEY_BOX_ANCHOR)) : null;
+    }
+
+    public static void setBoxAnchor(ItemStack chisel, @Nullable BlockPos anchor) {
+        if (anchor == null) {
+            getChiselTag(chisel).removeTag(KEY_BOX_ANCHOR);
+        } else {
+            getChiselTag(chisel).setLong(KEY_BOX_ANCHOR, anchor.toLong());
+        }
     }
 }
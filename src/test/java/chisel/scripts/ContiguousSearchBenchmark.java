@@ -0,0 +1,224 @@
+package chisel.scripts;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import javax.annotation.Nullable;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+
+import gnu.trove.map.TLongObjectMap;
+import gnu.trove.map.hash.TLongObjectHashMap;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.init.Blocks;
+import net.minecraft.init.Bootstrap;
+import net.minecraft.profiler.Profiler;
+import net.minecraft.util.EnumFacing;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.DimensionType;
+import net.minecraft.world.GameType;
+import net.minecraft.world.IBlockAccess;
+import net.minecraft.world.World;
+import net.minecraft.world.WorldSettings;
+import net.minecraft.world.WorldType;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.chunk.ChunkPrimer;
+import net.minecraft.world.chunk.IChunkProvider;
+import net.minecraft.world.storage.SaveHandlerMP;
+import net.minecraft.world.storage.WorldInfo;
+import team.chisel.common.item.ContiguousIterator;
+
+/**
+ * Compares {@link ContiguousIterator} against the previous flood fill (HashSet of BlockPos, queue of nodes) on a chunk-backed world holding a block of stone riddled with air pockets. Checks that both return the same candidates
+ * in the same order, then reports time and bytes allocated per search.
+ */
+public class ContiguousSearchBenchmark {
+
+    private static final int SIZE = 64;
+    private static final int RANGE = 10;
+    private static final int WARMUP = 200, RUNS = 1000;
+
+    public static void main(String[] args) {
+        Bootstrap.register();
+        World world = new CubeWorld(new Random(42), 0.3f);
+        BlockPos origin = new BlockPos(SIZE / 2, SIZE / 2, SIZE / 2);
+        EnumFacing[] dirs = EnumFacing.VALUES;
+
+        List<BlockPos> expected = Lists.newArrayList(legacyIterator(origin, world, dirs));
+        List<BlockPos> actual = Lists.newArrayList(new ContiguousIterator(origin, world, dirs, RANGE));
+        if (!expected.equals(actual)) {
+            throw new IllegalStateException("Candidates differ! Expected " + expected.size() + ", got " + actual.size());
+        }
+        System.out.println("Candidates: " + actual.size());
+
+        run("legacy", () -> legacyIterator(origin, world, dirs));
+        run("packed", () -> new ContiguousIterator(origin, world, dirs, RANGE));
+    }
+
+    private static void run(String name, Supplier<Iterator<BlockPos>> search) {
+        for (int i = 0; i < WARMUP; i++) {
+            drain(search.get());
+        }
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long tid = Thread.currentThread().getId();
+        long bytes = threads.getThreadAllocatedBytes(tid);
+        long start = System.nanoTime();
+        for (int i = 0; i < RUNS; i++) {
+            drain(search.get());
+        }
+        long time = System.nanoTime() - start;
+        bytes = threads.getThreadAllocatedBytes(tid) - bytes;
+        System.out.printf("%-8s %8.1f us/search %10d bytes/search%n", name, time / 1000.0 / RUNS, bytes / RUNS);
+    }
+
+    private static int drain(Iterator<BlockPos> iter) {
+        int count = 0;
+        while (iter.hasNext()) {
+            iter.next();
+            count++;
+        }
+        return count;
+    }
+
+    /* == The flood fill as it was before ContiguousIterator == */
+
+    private static class Node {
+        final BlockPos pos;
+        final int distance;
+
+        Node(BlockPos pos, int distance) {
+            this.pos = pos;
+            this.distance = distance;
+        }
+    }
+
+    private static Iterator<BlockPos> legacyIterator(BlockPos origin, IBlockAccess world, EnumFacing[] directionsToSearch) {
+        final IBlockState state = world.getBlockState(origin);
+        return new Iterator<BlockPos>() {
+
+            private Set<BlockPos> seen = Sets.newHashSet(origin);
+            private Queue<Node> search = new ArrayDeque<>();
+            { search.add(new Node(origin, 0)); }
+
+            @Override
+            public boolean hasNext() {
+                return !search.isEmpty();
+            }
+
+            @Override
+            public BlockPos next() {
+                Node ret = search.poll();
+                if (ret.distance < RANGE) {
+                    for (EnumFacing face : directionsToSearch) {
+                        BlockPos bp = ret.pos.offset(face);
+                        if (!seen.contains(bp) && world.getBlockState(bp) == state) {
+                            for (EnumFacing obscureCheck : EnumFacing.VALUES) {
+                                BlockPos obscuringPos = bp.offset(obscureCheck);
+                                IBlockState obscuringState = world.getBlockState(obscuringPos);
+                                if (!obscuringState.isSideSolid(world, obscuringPos, obscureCheck.getOpposite())) {
+                                    search.offer(new Node(bp, ret.distance + 1));
+                                    break;
+                                }
+                            }
+                        }
+                        seen.add(bp);
+                    }
+                }
+                return ret.pos;
+            }
+        };
+    }
+
+    /**
+     * A cube of stone with randomly placed air, surrounded by air. This is a real chunk-backed {@link World}, so that {@link ContiguousIterator} reads through its chunk cache as it does in game.
+     */
+    private static class CubeWorld extends World {
+
+        private final boolean[] air = new boolean[SIZE * SIZE * SIZE];
+        private final TLongObjectMap<Chunk> chunks = new TLongObjectHashMap<>();
+
+        CubeWorld(Random rand, float airChance) {
+            super(new SaveHandlerMP(), new WorldInfo(new WorldSettings(0, GameType.CREATIVE, false, false, WorldType.FLAT), "benchmark"), DimensionType.OVERWORLD.createDimension(),
+                    new Profiler(), false);
+            for (int i = 0; i < air.length; i++) {
+                air[i] = rand.nextFloat() < airChance;
+            }
+            air[index(SIZE / 2, SIZE / 2, SIZE / 2)] = false;
+            this.chunkProvider = createChunkProvider();
+        }
+
+        private int index(int x, int y, int z) {
+            return (x * SIZE + y) * SIZE + z;
+        }
+
+        private boolean isStone(int x, int y, int z) {
+            return x >= 0 && y >= 0 && z >= 0 && x < SIZE && y < SIZE && z < SIZE && !air[index(x, y, z)];
+        }
+
+        private Chunk buildChunk(int chunkX, int chunkZ) {
+            ChunkPrimer primer = new ChunkPrimer();
+            for (int x = 0; x < 16; x++) {
+                for (int z = 0; z < 16; z++) {
+                    for (int y = 0; y < SIZE; y++) {
+                        if (isStone(chunkX << 4 | x, y, chunkZ << 4 | z)) {
+                            primer.setBlockState(x, y, z, Blocks.STONE.getDefaultState());
+                        }
+                    }
+                }
+            }
+            Chunk chunk = new Chunk(this, primer, chunkX, chunkZ);
+            chunk.onLoad();
+            return chunk;
+        }
+
+        @Override
+        protected IChunkProvider createChunkProvider() {
+            return new IChunkProvider() {
+
+                @Override
+                public @Nullable Chunk getLoadedChunk(int x, int z) {
+                    return provideChunk(x, z);
+                }
+
+                @Override
+                public Chunk provideChunk(int x, int z) {
+                    long key = ChunkPos.asLong(x, z);
+                    Chunk chunk = chunks.get(key);
+                    if (chunk == null) {
+                        chunk = buildChunk(x, z);
+                        chunks.put(key, chunk);
+                    }
+                    return chunk;
+                }
+
+                @Override
+                public boolean tick() {
+                    return false;
+                }
+
+                @Override
+                public String makeString() {
+                    return "CubeWorld";
+                }
+
+                @Override
+                public boolean isChunkGeneratedAt(int x, int z) {
+                    return true;
+                }
+            };
+        }
+
+        @Override
+        protected boolean isChunkLoaded(int x, int z, boolean allowEmpty) {
+            return true;
+        }
+    }
+}